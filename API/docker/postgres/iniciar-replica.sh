@@ -0,0 +1,14 @@
+#!/bin/sh
+# Réplica de leitura local: clona o primário com pg_basebackup na primeira subida e segue em streaming
+set -e
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+  until pg_basebackup -h "$PRIMARIO_HOST" -U "$POSTGRES_USER" -D "$PGDATA" -R -X stream -c fast; do
+    echo "Aguardando o primário para o pg_basebackup..."
+    rm -rf "${PGDATA:?}"/*
+    sleep 2
+  done
+  chmod 700 "$PGDATA"
+fi
+
+exec postgres -c hot_standby=on
@@ -0,0 +1,4 @@
+#!/bin/sh
+# Roda só na criação do volume do primário: libera conexões de replicação para a réplica local
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
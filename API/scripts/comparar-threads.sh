@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Compara threads de plataforma x threads virtuais com alta concorrência contra o mesmo banco.
+#
+# Pré-requisitos: JDK 21, jar gerado com `./mvnw -Pjava21 package -DskipTests`, `hey`
+# (https://github.com/rakyll/hey) no PATH, variáveis do .env exportadas (DB_URL, JWT_SECRET, ...)
+# e uma empresa ATIVA para o login.
+#
+# Uso: EMAIL=empresa@exemplo.com SENHA=segredo scripts/comparar-threads.sh
+#      CONCORRENCIA=1000 DURACAO=60s ROTA="/funcionarios/buscar?termo=silva" scripts/comparar-threads.sh
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CONCORRENCIA=${CONCORRENCIA:-800}
+DURACAO=${DURACAO:-30s}
+ROTA=${ROTA:-/funcionarios/buscar?termo=silva}
+PORTA=${PORTA:-18080}
+PORTA_GESTAO=${PORTA_GESTAO:-18081}
+JAR=$(ls target/API-*.jar | head -n 1)
+: "${EMAIL:?defina EMAIL de uma empresa ativa}"
+: "${SENHA:?defina SENHA}"
+
+executar() {
+    local virtual=$1
+    VIRTUAL_THREADS=$virtual SERVER_PORT=$PORTA MANAGEMENT_PORT=$PORTA_GESTAO java -jar "$JAR" > "target/comparar-threads-$virtual.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' RETURN
+
+    for _ in $(seq 1 60); do
+        curl -sf "http://localhost:$PORTA_GESTAO/actuator/health" > /dev/null && break
+        sleep 2
+    done
+
+    local token
+    token=$(curl -sf -H 'Content-Type: application/json' \
+        -d "{\"email\":\"$EMAIL\",\"senha\":\"$SENHA\"}" "http://localhost:$PORTA/login" \
+        | sed -E 's/.*"token":"([^"]+)".*/\1/')
+
+    # Aquecimento do JIT e do pool antes da medição
+    hey -z 10s -c 50 -H "Authorization: Bearer $token" "http://localhost:$PORTA$ROTA" > /dev/null
+
+    echo "=== spring.threads.virtual.enabled=$virtual (c=$CONCORRENCIA, $DURACAO) ==="
+    hey -z "$DURACAO" -c "$CONCORRENCIA" -H "Authorization: Bearer $token" "http://localhost:$PORTA$ROTA" \
+        | grep -E 'Requests/sec|Average|Slowest|  (50|95|99)%|\[[0-9]{3}\]'
+    curl -sf "http://localhost:$PORTA_GESTAO/actuator/prometheus" | grep -E '^(hikaricp_connections_pending|indicaai_hikari_saturacao)' || true
+}
+
+# Resultado também em target/comparar-threads.txt, para registrar o antes/depois
+{
+    executar false
+    executar true
+} | tee target/comparar-threads.txt
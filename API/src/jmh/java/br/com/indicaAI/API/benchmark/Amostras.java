@@ -0,0 +1,85 @@
+package br.com.indicaAI.API.benchmark;
+
+import br.com.indicaAI.API.domain.avaliacao.Avaliacao;
+import br.com.indicaAI.API.domain.empresa.Empresa;
+import br.com.indicaAI.API.domain.funcionario.Funcionario;
+import br.com.indicaAI.API.domain.funcionario.FuncionarioRepository;
+import br.com.indicaAI.API.domain.funcionario.StatusFuncionario;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Dados em memória com o formato das respostas reais (página padrão de 20/50 itens).
+ */
+final class Amostras {
+
+    private Amostras() {
+    }
+
+    static List<Avaliacao> avaliacoes(int quantidade) {
+        var empresa = new Empresa();
+        empresa.setId(UUID.randomUUID());
+        empresa.setNomeFantasia("Padaria Central");
+        var funcionario = funcionario(0);
+        List<Avaliacao> avaliacoes = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            var avaliacao = new Avaliacao();
+            avaliacao.setId(UUID.randomUUID());
+            avaliacao.setEmpresa(empresa);
+            avaliacao.setFuncionario(funcionario);
+            avaliacao.setNota(1 + i % 5);
+            avaliacao.setDescricao("Pontual, cuidadoso com o cliente e organizado no fechamento do caixa. Avaliação " + i);
+            avaliacao.setResposta(i % 3 == 0 ? "Obrigado pela avaliação!" : null);
+            avaliacao.setDataAvaliacao(LocalDateTime.now().minusDays(i));
+            avaliacoes.add(avaliacao);
+        }
+        return avaliacoes;
+    }
+
+    static Funcionario funcionario(int i) {
+        var funcionario = new Funcionario();
+        funcionario.setId(UUID.randomUUID());
+        funcionario.setNomeCompleto("Maria da Silva " + i);
+        funcionario.setEmail("maria" + i + "@indicaai.test");
+        funcionario.setCpf("529.982.247-25");
+        funcionario.setStatus(StatusFuncionario.ATIVO);
+        funcionario.setCidade("São Paulo");
+        funcionario.setSobre("Atendente com cinco anos de experiência em varejo.");
+        return funcionario;
+    }
+
+    static List<FuncionarioRepository.ResultadoBusca> resultadosBusca(int quantidade) {
+        List<FuncionarioRepository.ResultadoBusca> resultados = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            var funcionario = funcionario(i);
+            resultados.add(new ResultadoBusca(funcionario.getId(), funcionario.getNomeCompleto(), funcionario.getEmail(),
+                    funcionario.getCpf(), "ATIVO", funcionario.getCidade(), funcionario.getSobre(),
+                    40, 160, 2, 3, 5, 10, 20, LocalDateTime.now()));
+        }
+        return resultados;
+    }
+
+    private record ResultadoBusca(UUID id, String nomeCompleto, String email, String cpf, String status, String cidade,
+                                  String sobre, long totalAvaliacoes, long somaNotas, long notas1, long notas2,
+                                  long notas3, long notas4, long notas5, LocalDateTime ultimaAvaliacao)
+            implements FuncionarioRepository.ResultadoBusca {
+        public UUID getId() { return id; }
+        public String getNomeCompleto() { return nomeCompleto; }
+        public String getEmail() { return email; }
+        public String getCpf() { return cpf; }
+        public String getStatus() { return status; }
+        public String getCidade() { return cidade; }
+        public String getSobre() { return sobre; }
+        public long getTotalAvaliacoes() { return totalAvaliacoes; }
+        public long getSomaNotas() { return somaNotas; }
+        public long getNotas1() { return notas1; }
+        public long getNotas2() { return notas2; }
+        public long getNotas3() { return notas3; }
+        public long getNotas4() { return notas4; }
+        public long getNotas5() { return notas5; }
+        public LocalDateTime getUltimaAvaliacao() { return ultimaAvaliacao; }
+    }
+}
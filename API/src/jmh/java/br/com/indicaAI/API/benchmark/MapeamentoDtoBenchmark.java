@@ -0,0 +1,49 @@
+package br.com.indicaAI.API.benchmark;
+
+import br.com.indicaAI.API.domain.avaliacao.Avaliacao;
+import br.com.indicaAI.API.domain.avaliacao.dtos.DetalhamentoAvaliacaoDTO;
+import br.com.indicaAI.API.domain.funcionario.Funcionario;
+import br.com.indicaAI.API.domain.funcionario.FuncionarioRepository;
+import br.com.indicaAI.API.domain.funcionario.dtos.DetalhamentoFuncionarioDTO;
+import br.com.indicaAI.API.domain.reputacao.ReputacaoDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapeamentoDtoBenchmark {
+
+    private List<Avaliacao> avaliacoes;
+    private List<FuncionarioRepository.ResultadoBusca> resultadosBusca;
+    private Funcionario funcionario;
+
+    @Setup
+    public void preparar() {
+        avaliacoes = Amostras.avaliacoes(50);
+        resultadosBusca = Amostras.resultadosBusca(20);
+        funcionario = Amostras.funcionario(0);
+    }
+
+    @Benchmark
+    public List<DetalhamentoAvaliacaoDTO> avaliacoesParaDto() {
+        return avaliacoes.stream().map(DetalhamentoAvaliacaoDTO::new).toList();
+    }
+
+    @Benchmark
+    public List<DetalhamentoFuncionarioDTO> resultadosBuscaParaDto() {
+        return resultadosBusca.stream().map(DetalhamentoFuncionarioDTO::new).toList();
+    }
+
+    @Benchmark
+    public DetalhamentoFuncionarioDTO funcionarioParaDto() {
+        return new DetalhamentoFuncionarioDTO(funcionario,
+                ReputacaoDTO.de(40, 160, 2, 3, 5, 10, 20, LocalDateTime.now()));
+    }
+}
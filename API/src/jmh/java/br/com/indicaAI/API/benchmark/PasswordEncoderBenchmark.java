@@ -0,0 +1,40 @@
+package br.com.indicaAI.API.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do BCrypt por fator de trabalho: encode no cadastro/troca de senha, matches no login.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordEncoderBenchmark {
+
+    @Param({"10", "12"})
+    public int custo;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void preparar() {
+        encoder = new BCryptPasswordEncoder(custo);
+        hash = encoder.encode("senha-de-benchmark");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("senha-de-benchmark");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("senha-de-benchmark", hash);
+    }
+}
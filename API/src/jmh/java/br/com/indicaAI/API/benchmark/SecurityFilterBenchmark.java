@@ -0,0 +1,58 @@
+package br.com.indicaAI.API.benchmark;
+
+import br.com.indicaAI.API.domain.autenticacao.TipoUsuario;
+import br.com.indicaAI.API.domain.autenticacao.UsuarioAutenticado;
+import br.com.indicaAI.API.infrastructure.security.RevogacaoTokens;
+import br.com.indicaAI.API.infrastructure.security.SecurityFilter;
+import br.com.indicaAI.API.infrastructure.security.TokenService;
+import jakarta.servlet.FilterChain;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho do filtro num request autenticado em modo stateless: extração do header,
+ * verificação do token, montagem do principal e checagem de revogação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SecurityFilterBenchmark {
+
+    private SecurityFilter filtro;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain cadeia = (req, res) -> { };
+
+    @Setup
+    public void preparar() {
+        var tokenService = new TokenService("segredo-benchmark", 10_000, Duration.ofHours(24), new SimpleMeterRegistry());
+        var usuario = new UsuarioAutenticado(UUID.randomUUID(), "empresa@indicaai.test", TipoUsuario.EMPRESA,
+                UsuarioAutenticado.STATUS_ATIVO);
+        // Sem banco nem broker: o modo stateless nunca chega ao AutenticacaoService com tokens
+        // atuais, e ninguém é revogado
+        filtro = new SecurityFilter(tokenService, null, new RevogacaoTokens(null), true);
+        request = new MockHttpServletRequest("GET", "/funcionarios/buscar");
+        request.addHeader("Authorization", "Bearer " + tokenService.gerarToken(usuario));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication filtrarRequestAutenticado() throws Exception {
+        request.removeAttribute(SecurityFilter.class.getName() + ".FILTERED");
+        filtro.doFilter(request, response, cadeia);
+        var autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return autenticacao;
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.indicaAI.API.benchmark;
+
+import br.com.indicaAI.API.domain.avaliacao.dtos.DetalhamentoAvaliacaoDTO;
+import br.com.indicaAI.API.domain.avaliacao.dtos.PaginaAvaliacoesDTO;
+import br.com.indicaAI.API.domain.funcionario.dtos.DetalhamentoFuncionarioDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização das respostas em lista com um ObjectMapper configurado como o do Spring Boot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacaoJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private List<DetalhamentoAvaliacaoDTO> avaliacoes;
+    private PaginaAvaliacoesDTO pagina;
+    private List<DetalhamentoFuncionarioDTO> funcionarios;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        avaliacoes = Amostras.avaliacoes(50).stream().map(DetalhamentoAvaliacaoDTO::new).toList();
+        pagina = new PaginaAvaliacoesDTO(avaliacoes.subList(0, 20), "MjAyNi0xMC0xOFQxMDowMHwx");
+        funcionarios = Amostras.resultadosBusca(20).stream().map(DetalhamentoFuncionarioDTO::new).toList();
+    }
+
+    @Benchmark
+    public byte[] listaAvaliacoes() throws Exception {
+        return objectMapper.writeValueAsBytes(avaliacoes);
+    }
+
+    @Benchmark
+    public byte[] paginaAvaliacoes() throws Exception {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] buscaFuncionarios() throws Exception {
+        return objectMapper.writeValueAsBytes(funcionarios);
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.indicaAI.API.benchmark;
+
+import br.com.indicaAI.API.domain.autenticacao.TipoUsuario;
+import br.com.indicaAI.API.domain.autenticacao.UsuarioAutenticado;
+import br.com.indicaAI.API.infrastructure.security.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenServiceBenchmark {
+
+    private TokenService tokenService;
+    private UsuarioAutenticado usuario;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        tokenService = new TokenService("segredo-benchmark", 10_000, Duration.ofHours(24), new SimpleMeterRegistry());
+        usuario = new UsuarioAutenticado(UUID.randomUUID(), "funcionario@indicaai.test", TipoUsuario.FUNCIONARIO,
+                UsuarioAutenticado.STATUS_ATIVO);
+        token = tokenService.gerarToken(usuario);
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return tokenService.gerarToken(usuario);
+    }
+
+    @Benchmark
+    public String getSubject() {
+        return tokenService.getSubject(token);
+    }
+
+    @Benchmark
+    public UsuarioAutenticado verificarEMontarUsuario() {
+        return tokenService.montarUsuario(tokenService.verificar(token));
+    }
+}
@@ -2,7 +2,9 @@ package br.com.indicaAI.API.controllers.autenticacao;
 
 import br.com.indicaAI.API.domain.autenticacao.dtos.DadosAutenticacao;
 import br.com.indicaAI.API.domain.autenticacao.dtos.DadosTokenJWT;
+import br.com.indicaAI.API.infrastructure.security.HashingIndisponivelException;
 import br.com.indicaAI.API.infrastructure.security.TokenService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,6 +27,7 @@ public class AutenticacaoController {
     }
 
     @PostMapping
+    @Timed(value = "indicaai.login", histogram = true)
     public ResponseEntity<DadosTokenJWT> efetuarLogin(@RequestBody @Valid DadosAutenticacao dados) {
         try {
             var authenticationToken = new UsernamePasswordAuthenticationToken(dados.email(), dados.senha());
@@ -32,6 +35,8 @@ public class AutenticacaoController {
             var tokenJWT = tokenService.gerarToken(authentication.getPrincipal());
 
             return ResponseEntity.ok(new DadosTokenJWT(tokenJWT));
+        } catch (HashingIndisponivelException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
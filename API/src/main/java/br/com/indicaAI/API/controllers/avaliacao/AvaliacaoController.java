@@ -1,72 +1,243 @@
 package br.com.indicaAI.API.controllers.avaliacao;
 
+import br.com.indicaAI.API.domain.autenticacao.UsuarioAutenticado;
 import br.com.indicaAI.API.domain.avaliacao.AvaliacaoService;
+import br.com.indicaAI.API.domain.avaliacao.ExportacaoAvaliacoesService;
+import br.com.indicaAI.API.domain.avaliacao.FormatoExportacao;
+import br.com.indicaAI.API.domain.avaliacao.ImportacaoAvaliacoesService;
 import br.com.indicaAI.API.domain.avaliacao.dtos.CriarAvaliacaoDTO;
 import br.com.indicaAI.API.domain.avaliacao.dtos.DetalhamentoAvaliacaoDTO;
+import br.com.indicaAI.API.domain.avaliacao.dtos.PaginaAvaliacoesDTO;
 import br.com.indicaAI.API.domain.avaliacao.dtos.ResponderAvaliacaoDTO;
-import br.com.indicaAI.API.domain.empresa.Empresa;
-import br.com.indicaAI.API.domain.funcionario.Funcionario;
+import br.com.indicaAI.API.domain.shared.CachePerfis.Versionado;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/avaliacoes")
 public class AvaliacaoController {
 
     private final AvaliacaoService avaliacaoService;
+    private final ImportacaoAvaliacoesService importacaoService;
+    private final ExportacaoAvaliacoesService exportacaoService;
+    private final ObjectMapper objectMapper;
+    private final AsyncTaskExecutor executor;
 
-    public AvaliacaoController(AvaliacaoService avaliacaoService) {
+    public AvaliacaoController(AvaliacaoService avaliacaoService, ImportacaoAvaliacoesService importacaoService,
+            ExportacaoAvaliacoesService exportacaoService, ObjectMapper objectMapper,
+            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor) {
         this.avaliacaoService = avaliacaoService;
+        this.importacaoService = importacaoService;
+        this.exportacaoService = exportacaoService;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
     }
 
     @PostMapping("/criar")
     public ResponseEntity<DetalhamentoAvaliacaoDTO> avaliar(
             @RequestBody @Valid CriarAvaliacaoDTO dto,
-            @AuthenticationPrincipal Empresa empresaLogada,
+            @AuthenticationPrincipal UsuarioAutenticado empresaLogada,
             UriComponentsBuilder uriBuilder) {
-        var avaliacao = avaliacaoService.avaliar(dto, empresaLogada);
+        var avaliacao = avaliacaoService.avaliar(dto, empresaLogada.id());
         URI uri = uriBuilder.path("/avaliacoes/{id}").buildAndExpand(avaliacao.id()).toUri();
         return ResponseEntity.created(uri).body(avaliacao);
     }
 
+    // NDJSON: uma CriarAvaliacaoDTO por linha; a resposta traz o status de cada linha, também em NDJSON
+    @PostMapping(value = "/lote", consumes = {"application/x-ndjson", "application/jsonl"}, produces = "application/x-ndjson")
+    public void importarLote(
+            InputStream corpo,
+            @AuthenticationPrincipal UsuarioAutenticado empresaLogada,
+            HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        var saida = response.getOutputStream();
+        importacaoService.importar(corpo, empresaLogada.id(), resultados -> {
+            try {
+                for (var resultado : resultados) {
+                    saida.write(objectMapper.writeValueAsBytes(resultado));
+                    saida.write('\n');
+                }
+                saida.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
     @PostMapping("/{id}/responder")
     public ResponseEntity<DetalhamentoAvaliacaoDTO> responder(
             @PathVariable UUID id,
             @RequestBody @Valid ResponderAvaliacaoDTO dto,
-            @AuthenticationPrincipal Funcionario funcionarioLogado) {
-        var resposta = avaliacaoService.responder(id, dto, funcionarioLogado);
+            @AuthenticationPrincipal UsuarioAutenticado funcionarioLogado) {
+        var resposta = avaliacaoService.responder(id, dto, funcionarioLogado.id());
         return ResponseEntity.ok(resposta);
     }
 
     // FUNCIONÁRIO VÊ SUAS PRÓPRIAS AVALIAÇÕES
     @GetMapping("/minhas")
     public ResponseEntity<List<DetalhamentoAvaliacaoDTO>> listarMinhas(
-            @AuthenticationPrincipal Funcionario funcionarioLogado) {
-        var lista = avaliacaoService.listarPorFuncionario(funcionarioLogado.getId());
-        return ResponseEntity.ok(lista);
+            @AuthenticationPrincipal UsuarioAutenticado funcionarioLogado,
+            WebRequest webRequest) {
+        var funcionarioId = funcionarioLogado.id();
+        return condicional(avaliacaoService.versaoListaPorFuncionario(funcionarioId), webRequest,
+                () -> avaliacaoService.listarPorFuncionario(funcionarioId));
+    }
+
+    // Versão paginada por cursor; sem o parâmetro "tamanho" vale a lista completa acima
+    @GetMapping(value = "/minhas", params = "tamanho")
+    public ResponseEntity<PaginaAvaliacoesDTO> listarMinhasPaginado(
+            @RequestParam int tamanho,
+            @RequestParam(required = false) String cursor,
+            @AuthenticationPrincipal UsuarioAutenticado funcionarioLogado,
+            WebRequest webRequest) {
+        var funcionarioId = funcionarioLogado.id();
+        return condicional(avaliacaoService.versaoListaPorFuncionario(funcionarioId), webRequest,
+                () -> avaliacaoService.listarPorFuncionario(funcionarioId, cursor, tamanho));
     }
 
     // NOVO: EMPRESA VÊ HISTÓRICO DE UM FUNCIONÁRIO (DE TODAS AS EMPRESAS)
     @GetMapping("/funcionario/{id}")
     public ResponseEntity<List<DetalhamentoAvaliacaoDTO>> listarHistoricoDeFuncionario(
-            @PathVariable UUID id) {
+            @PathVariable UUID id,
+            WebRequest webRequest) {
         // Retorna a lista completa, onde cada item tem o nome da empresa que avaliou
-        var lista = avaliacaoService.listarPorFuncionario(id);
-        return ResponseEntity.ok(lista);
+        return condicional(avaliacaoService.versaoListaPorFuncionario(id), webRequest,
+                () -> avaliacaoService.listarPorFuncionario(id));
+    }
+
+    @GetMapping(value = "/funcionario/{id}", params = "tamanho")
+    public ResponseEntity<PaginaAvaliacoesDTO> listarHistoricoDeFuncionarioPaginado(
+            @PathVariable UUID id,
+            @RequestParam int tamanho,
+            @RequestParam(required = false) String cursor,
+            WebRequest webRequest) {
+        return condicional(avaliacaoService.versaoListaPorFuncionario(id), webRequest,
+                () -> avaliacaoService.listarPorFuncionario(id, cursor, tamanho));
     }
 
     // EMPRESA VÊ AVALIAÇÕES QUE ELA FEZ
     @GetMapping("/minhas-avaliacoes")
     public ResponseEntity<List<DetalhamentoAvaliacaoDTO>> listarMinhasAvaliacoes(
-            @AuthenticationPrincipal Empresa empresaLogada) {
-        var lista = avaliacaoService.listarPorEmpresa(empresaLogada.getId());
-        return ResponseEntity.ok(lista);
+            @AuthenticationPrincipal UsuarioAutenticado empresaLogada,
+            WebRequest webRequest) {
+        var empresaId = empresaLogada.id();
+        return condicional(avaliacaoService.versaoListaPorEmpresa(empresaId), webRequest,
+                () -> avaliacaoService.listarPorEmpresa(empresaId));
+    }
+
+    @GetMapping(value = "/minhas-avaliacoes", params = "tamanho")
+    public ResponseEntity<PaginaAvaliacoesDTO> listarMinhasAvaliacoesPaginado(
+            @RequestParam int tamanho,
+            @RequestParam(required = false) String cursor,
+            @AuthenticationPrincipal UsuarioAutenticado empresaLogada,
+            WebRequest webRequest) {
+        var empresaId = empresaLogada.id();
+        return condicional(avaliacaoService.versaoListaPorEmpresa(empresaId), webRequest,
+                () -> avaliacaoService.listarPorEmpresa(empresaId, cursor, tamanho));
+    }
+
+    // Históricos completos em streaming (NDJSON ou CSV), para integrações que puxam tudo
+    @GetMapping("/minhas/exportar")
+    public WebAsyncTask<Void> exportarMinhas(
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @AuthenticationPrincipal UsuarioAutenticado funcionarioLogado,
+            HttpServletResponse response) {
+        var funcionarioId = funcionarioLogado.id();
+        var formatoExportacao = FormatoExportacao.porExtensao(formato);
+        return exportacao(formatoExportacao, "avaliacoes-recebidas", response,
+                saida -> exportacaoService.exportarPorFuncionario(funcionarioId, formatoExportacao, saida));
+    }
+
+    @GetMapping("/minhas-avaliacoes/exportar")
+    public WebAsyncTask<Void> exportarMinhasAvaliacoes(
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @AuthenticationPrincipal UsuarioAutenticado empresaLogada,
+            HttpServletResponse response) {
+        var empresaId = empresaLogada.id();
+        var formatoExportacao = FormatoExportacao.porExtensao(formato);
+        return exportacao(formatoExportacao, "avaliacoes-realizadas", response,
+                saida -> exportacaoService.exportarPorEmpresa(empresaId, formatoExportacao, saida));
+    }
+
+    /**
+     * A versão avulsa (leitura barata) decide o 304. Num 200 a ETag é a versão lida na mesma
+     * transação da lista: com réplicas, as duas leituras separadas podem cair em réplicas com
+     * atrasos diferentes, e um corpo velho ficaria em cache com uma ETag nova.
+     */
+    private <T> ResponseEntity<T> condicional(String versao, WebRequest webRequest,
+            Supplier<Versionado<T>> consulta) {
+        if (webRequest.checkNotModified(etag(versao))) {
+            return null;
+        }
+
+        var lista = consulta.get();
+        // checkNotModified já gravou a ETag da versão avulsa; o ETag do ResponseEntity não a substituiria
+        ((ServletWebRequest) webRequest).getResponse().setHeader(HttpHeaders.ETAG, etag(lista.versao()));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(lista.valor());
+    }
+
+    private static String etag(String versao) {
+        return "\"" + versao + "\"";
+    }
+
+    /**
+     * Vaga reservada antes dos cabeçalhos (sem vaga, 503) e timeout só desta tarefa. A vaga volta
+     * só no finally da tarefa: no timeout a thread ainda segura a conexão até ser interrompida,
+     * e liberar antes deixaria passar do limite. Tarefa recusada pelo executor nunca chega ao
+     * finally, por isso a recusa devolve a vaga onde a tarefa é submetida.
+     */
+    private WebAsyncTask<Void> exportacao(FormatoExportacao formato, String nomeArquivo, HttpServletResponse response,
+            Consumer<OutputStream> corpo) {
+        exportacaoService.reservar();
+
+        response.setContentType(formato.getTipoConteudo() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(nomeArquivo + "." + formato.getExtensao())
+                .build()
+                .toString());
+        AsyncTaskExecutor submissao = tarefa -> {
+            try {
+                executor.execute(tarefa);
+            } catch (TaskRejectedException e) {
+                exportacaoService.liberar();
+                throw e;
+            }
+        };
+        return new WebAsyncTask<>(exportacaoService.getTimeout().toMillis(), submissao, () -> {
+            try {
+                corpo.accept(response.getOutputStream());
+                return null;
+            } finally {
+                exportacaoService.liberar();
+            }
+        });
     }
-}
\ No newline at end of file
+}
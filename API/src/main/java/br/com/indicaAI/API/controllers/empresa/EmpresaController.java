@@ -1,5 +1,6 @@
 package br.com.indicaAI.API.controllers.empresa;
 
+import br.com.indicaAI.API.domain.autenticacao.UsuarioAutenticado;
 import br.com.indicaAI.API.domain.empresa.Empresa;
 import br.com.indicaAI.API.domain.empresa.EmpresaService;
 import br.com.indicaAI.API.domain.empresa.dtos.AlterarSenhaDTO;
@@ -8,10 +9,11 @@ import br.com.indicaAI.API.domain.empresa.dtos.CadastroEmpresaDTO;
 import br.com.indicaAI.API.domain.empresa.dtos.InformacoesEmpresaDTO;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
@@ -50,21 +52,34 @@ public class EmpresaController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<InformacoesEmpresaDTO> detalhar(@PathVariable UUID id) {
-        var dto = empresaService.detalharEmpresa(id);
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<InformacoesEmpresaDTO> detalhar(@PathVariable UUID id, WebRequest webRequest) {
+        return detalharCondicional(id, webRequest);
     }
 
     @GetMapping("/me")
     public ResponseEntity<InformacoesEmpresaDTO> meuPerfil(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        if (userDetails instanceof Empresa empresaLogada) {
-            var dto = empresaService.detalharEmpresa(empresaLogada.getId());
-            return ResponseEntity.ok(dto);
+            @AuthenticationPrincipal UsuarioAutenticado usuarioLogado,
+            WebRequest webRequest) {
+        if (usuarioLogado.isEmpresa()) {
+            return detalharCondicional(usuarioLogado.id(), webRequest);
         }
         return ResponseEntity.notFound().build();
     }
 
+    // ETag forte a partir do @Version; perfil e versão vêm juntos do cache de perfis
+    private ResponseEntity<InformacoesEmpresaDTO> detalharCondicional(UUID id, WebRequest webRequest) {
+        var perfil = empresaService.detalharVersionado(id);
+        var etag = "\"" + perfil.versao() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(perfil.valor());
+    }
+
     @PatchMapping("/alterar-senha")
     @Transactional
     public ResponseEntity<Void> alterarSenha(@RequestBody @Valid AlterarSenhaDTO dados) {
@@ -1,28 +1,49 @@
 package br.com.indicaAI.API.controllers.funcionario;
 
-import br.com.indicaAI.API.domain.funcionario.Funcionario;
+import br.com.indicaAI.API.domain.autenticacao.UsuarioAutenticado;
+import br.com.indicaAI.API.domain.funcionario.EventosValidacao;
 import br.com.indicaAI.API.domain.funcionario.FuncionarioService;
 import br.com.indicaAI.API.domain.funcionario.dtos.AtualizacaoFuncionarioDTO;
 import br.com.indicaAI.API.domain.funcionario.dtos.CadastroFuncionarioDTO;
 import br.com.indicaAI.API.domain.funcionario.dtos.DetalhamentoFuncionarioDTO;
+import br.com.indicaAI.API.domain.funcionario.foto.FotosFuncionario;
+import br.com.indicaAI.API.domain.funcionario.foto.TipoFoto;
+import br.com.indicaAI.API.domain.reputacao.PosicaoRankingDTO;
+import br.com.indicaAI.API.infrastructure.security.TokenService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/funcionarios")
 public class FuncionarioController {
 
+    public static final String HEADER_TOKEN_VALIDACAO = "X-Token-Validacao";
+
     private final FuncionarioService funcionarioService;
+    private final FotosFuncionario fotosFuncionario;
+    private final EventosValidacao eventosValidacao;
+    private final TokenService tokenService;
 
-    public FuncionarioController(FuncionarioService funcionarioService) {
+    public FuncionarioController(FuncionarioService funcionarioService, FotosFuncionario fotosFuncionario,
+            EventosValidacao eventosValidacao, TokenService tokenService) {
         this.funcionarioService = funcionarioService;
+        this.fotosFuncionario = fotosFuncionario;
+        this.eventosValidacao = eventosValidacao;
+        this.tokenService = tokenService;
     }
 
     @PostMapping("/cadastro")
@@ -31,37 +52,100 @@ public class FuncionarioController {
             UriComponentsBuilder uriBuilder) {
         var funcionarioDetalhado = funcionarioService.cadastrarFuncionario(dto);
         URI uri = uriBuilder.path("/funcionarios/{id}").buildAndExpand(funcionarioDetalhado.id()).toUri();
-        return ResponseEntity.created(uri).body(funcionarioDetalhado);
+        // Quem acabou de se cadastrar ainda não faz login; o token só abre o stream de status da validação
+        return ResponseEntity.created(uri)
+                .header(HEADER_TOKEN_VALIDACAO, tokenService.gerarTokenValidacao(funcionarioDetalhado.id()))
+                .body(funcionarioDetalhado);
+    }
+
+    // EventSource não envia cabeçalhos, por isso o token vai na query: vale pouco e só para este id
+    @GetMapping(path = "/{id}/validacao/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> eventosValidacao(@PathVariable UUID id, @RequestParam String token) {
+        var expiracao = tokenService.verificarTokenValidacao(token, id);
+        if (expiracao == null) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(eventosValidacao.inscrever(id, expiracao));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<DetalhamentoFuncionarioDTO> detalhar(
             @PathVariable UUID id,
-            @AuthenticationPrincipal UserDetails usuarioLogado) {
-        if (usuarioLogado instanceof Funcionario f && !f.getId().equals(id)) {
+            @AuthenticationPrincipal UsuarioAutenticado usuarioLogado,
+            WebRequest webRequest) {
+        if (usuarioLogado.isFuncionario() && !usuarioLogado.id().equals(id)) {
             return ResponseEntity.status(403).build();
         }
 
-        var dto = funcionarioService.detalhar(id);
-        return ResponseEntity.ok(dto);
+        return detalharCondicional(id, webRequest);
+    }
+
+    @GetMapping("/{id}/fotos/{tipo}")
+    public ResponseEntity<StreamingResponseBody> foto(
+            @PathVariable UUID id,
+            @PathVariable String tipo,
+            @AuthenticationPrincipal UsuarioAutenticado usuarioLogado,
+            WebRequest webRequest) {
+        var tipoFoto = TipoFoto.doCaminho(tipo);
+        // Documento só para o próprio funcionário; empresas veem apenas o rosto
+        if (usuarioLogado.isFuncionario() ? !usuarioLogado.id().equals(id) : tipoFoto == TipoFoto.DOCUMENTO) {
+            return ResponseEntity.status(403).build();
+        }
+
+        var referencia = funcionarioService.buscarReferenciaFoto(id, tipoFoto);
+        if (FotosFuncionario.isUrlExterna(referencia)) {
+            return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(referencia)).build();
+        }
+
+        var foto = fotosFuncionario.buscar(referencia).orElse(null);
+        if (foto == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        var etag = "\"" + foto.chave() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        // ETag é o hash do conteúdo; a URL é por funcionário, então o max-age fica curto e revalida pela ETag
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(foto.tipoConteudo()))
+                .contentLength(foto.tamanho())
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePrivate())
+                .body(saida -> fotosFuncionario.transferir(foto, saida));
     }
 
     @GetMapping("/me")
     public ResponseEntity<DetalhamentoFuncionarioDTO> meuPerfil(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        if (userDetails instanceof Funcionario funcionarioLogado) {
-            var dto = funcionarioService.detalhar(funcionarioLogado.getId());
-            return ResponseEntity.ok(dto);
+            @AuthenticationPrincipal UsuarioAutenticado usuarioLogado,
+            WebRequest webRequest) {
+        if (usuarioLogado.isFuncionario()) {
+            return detalharCondicional(usuarioLogado.id(), webRequest);
         }
         return ResponseEntity.notFound().build();
     }
 
+    private ResponseEntity<DetalhamentoFuncionarioDTO> detalharCondicional(UUID id, WebRequest webRequest) {
+        // Perfil e versão vêm juntos do cache de perfis, então a ETag sempre descreve o corpo enviado
+        var perfil = funcionarioService.detalharVersionado(id);
+        var etag = "\"" + perfil.versao() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(perfil.valor());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<DetalhamentoFuncionarioDTO> atualizar(
             @PathVariable UUID id,
             @RequestBody @Valid AtualizacaoFuncionarioDTO dto,
-            @AuthenticationPrincipal Funcionario funcionarioLogado) {
-        if (!funcionarioLogado.getId().equals(id)) {
+            @AuthenticationPrincipal UsuarioAutenticado funcionarioLogado) {
+        if (!funcionarioLogado.id().equals(id)) {
             return ResponseEntity.status(403).build();
         }
 
@@ -72,8 +156,8 @@ public class FuncionarioController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> inativar(
             @PathVariable UUID id,
-            @AuthenticationPrincipal Funcionario funcionarioLogado) {
-        if (!funcionarioLogado.getId().equals(id)) {
+            @AuthenticationPrincipal UsuarioAutenticado funcionarioLogado) {
+        if (!funcionarioLogado.id().equals(id)) {
             return ResponseEntity.status(403).build();
         }
 
@@ -82,9 +166,20 @@ public class FuncionarioController {
     }
 
     @GetMapping("/buscar")
-    public ResponseEntity<java.util.List<DetalhamentoFuncionarioDTO>> buscar(
-            @RequestParam String termo) {
-        var lista = funcionarioService.buscarPorNome(termo);
+    public ResponseEntity<List<DetalhamentoFuncionarioDTO>> buscar(
+            @RequestParam String termo,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamanho) {
+        var lista = funcionarioService.buscarPorNome(termo, pagina, tamanho);
         return ResponseEntity.ok(lista);
     }
-}
\ No newline at end of file
+
+    // Melhores avaliados da cidade (média bayesiana com decaimento no tempo), servido da memória
+    @GetMapping("/ranking")
+    public ResponseEntity<List<PosicaoRankingDTO>> ranking(
+            @RequestParam String cidade,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamanho) {
+        return ResponseEntity.ok(funcionarioService.ranking(cidade, pagina, tamanho));
+    }
+}
@@ -1,34 +1,134 @@
 package br.com.indicaAI.API.domain.autenticacao;
 
-import br.com.indicaAI.API.domain.empresa.EmpresaRepository;
-import br.com.indicaAI.API.domain.funcionario.FuncionarioRepository;
+import br.com.indicaAI.API.infrastructure.rabbitmq.RabbitMQConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
-public class AutenticacaoService implements UserDetailsService {
+public class AutenticacaoService implements UserDetailsService, UserDetailsPasswordService {
+
+    public record InvalidacaoCredenciais(List<String> emails) {}
 
-    private final FuncionarioRepository funcionarioRepository;
-    private final EmpresaRepository empresaRepository;
+    private final CredencialRepository credencialRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final Cache<String, Credencial> credenciais;
+    private final AtomicLong geracao = new AtomicLong();
+    private final Logger logger = LoggerFactory.getLogger(AutenticacaoService.class);
 
-    public AutenticacaoService(FuncionarioRepository funcionarioRepository, EmpresaRepository empresaRepository) {
-        this.funcionarioRepository = funcionarioRepository;
-        this.empresaRepository = empresaRepository;
+    public AutenticacaoService(CredencialRepository credencialRepository, RabbitTemplate rabbitTemplate,
+            @Value("${api.security.credenciais.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+            @Value("${api.security.credenciais.cache.ttl:5m}") Duration ttl) {
+        this.credencialRepository = credencialRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.credenciais = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .build();
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        var funcionario = funcionarioRepository.findByEmail(username);
-        if (funcionario != null) {
-            return (UserDetails) funcionario;
+        // Ausências não entram no cache, então um cadastro novo não precisa invalidar nada
+        var credencial = credenciais.getIfPresent(username);
+        if (credencial == null) {
+            credencial = carregar(username);
+        }
+        if (credencial == null) {
+            throw new UsernameNotFoundException("Usuário ou empresa não encontrado");
         }
-        var empresa = empresaRepository.findByEmail(username);
-        if (empresa != null) {
-            return (UserDetails) empresa;
+        return credencial;
+    }
+
+    /**
+     * Chamado pelo DaoAuthenticationProvider depois de um login bem-sucedido quando o hash
+     * gravado usa um custo menor que o configurado: regrava com o novo hash, sem migração.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails usuario, String novaSenha) {
+        var credencial = (Credencial) usuario;
+        credencialRepository.atualizarSenha(credencial, novaSenha);
+        invalidar(credencial.email());
+        return new Credencial(credencial.id(), credencial.email(), novaSenha, credencial.tipo(), credencial.status());
+    }
+
+    /**
+     * Carga fora do compute do Caffeine: dentro dele a consulta ao banco prenderia a thread
+     * carregadora (pinning com threads virtuais). Uma invalidação concorrente muda a geração,
+     * e aí o valor lido pode estar velho e sai do cache.
+     */
+    private Credencial carregar(String email) {
+        var geracaoAntes = geracao.get();
+        var credencial = credencialRepository.buscarPorEmail(email);
+        if (credencial != null) {
+            credenciais.put(email, credencial);
+            if (geracao.get() != geracaoAntes) {
+                credenciais.invalidate(email);
+            }
         }
+        return credencial;
+    }
+
+    /**
+     * Descarta as credenciais em cache. Dentro de uma transação também descarta
+     * depois do commit, para um login concorrente não repor o valor antigo, e só então
+     * publica no fanout para os outros nós (antes disso eles recarregariam o valor antigo).
+     */
+    public void invalidar(String... emails) {
+        var chaves = Arrays.stream(emails).filter(Objects::nonNull).toList();
+        descartar(chaves);
 
-        throw new UsernameNotFoundException("Usuário ou empresa não encontrado");
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publicar(chaves);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                descartar(chaves);
+                publicar(chaves);
+            }
+        });
+    }
+
+    // Fila exclusiva deste nó; a própria publicação também volta para cá, o que só repete o descarte
+    @RabbitListener(queues = "#{" + RabbitMQConfig.FILA_INVALIDACAO_CREDENCIAIS + ".name}")
+    public void receber(InvalidacaoCredenciais invalidacao) {
+        descartar(invalidacao.emails());
+    }
+
+    private void descartar(List<String> chaves) {
+        geracao.incrementAndGet();
+        credenciais.invalidateAll(chaves);
+    }
+
+    private void publicar(List<String> chaves) {
+        if (chaves.isEmpty()) {
+            return;
+        }
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_INVALIDACAO_CREDENCIAIS, "",
+                    new InvalidacaoCredenciais(chaves));
+        } catch (AmqpException e) {
+            logger.warn("Falha ao publicar invalidação de credenciais; outros nós expiram pelo TTL", e);
+        }
     }
-}
\ No newline at end of file
+}
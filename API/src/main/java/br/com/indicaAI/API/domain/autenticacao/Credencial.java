@@ -0,0 +1,46 @@
+package br.com.indicaAI.API.domain.autenticacao;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Projeção mínima usada no login: só o necessário para conferir o hash e emitir o token.
+ */
+public record Credencial(
+        UUID id,
+        String email,
+        String senha,
+        TipoUsuario tipo,
+        String status
+) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(tipo.getRole()));
+    }
+
+    @Override
+    public String getPassword() {
+        return senha;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return !"BLOQUEADO".equals(status);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return UsuarioAutenticado.STATUS_ATIVO.equals(status);
+    }
+}
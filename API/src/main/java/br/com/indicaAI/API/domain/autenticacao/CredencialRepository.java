@@ -0,0 +1,44 @@
+package br.com.indicaAI.API.domain.autenticacao;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public class CredencialRepository {
+
+    // Uma ida ao banco para as duas tabelas; funcionário tem precedência como no fluxo antigo
+    private static final String SQL_BUSCAR_POR_EMAIL = """
+            SELECT id, email, senha, tipo, status FROM (
+                SELECT id, email, senha, 'FUNCIONARIO' AS tipo, status, 0 AS ordem
+                  FROM funcionarios WHERE email = ?
+                UNION ALL
+                SELECT id, email, senha, 'EMPRESA' AS tipo, COALESCE(status, 'ATIVO') AS status, 1 AS ordem
+                  FROM empresas WHERE email = ?
+            ) credenciais
+            ORDER BY ordem
+            LIMIT 1
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CredencialRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Credencial buscarPorEmail(String email) {
+        var resultado = jdbcTemplate.query(SQL_BUSCAR_POR_EMAIL, (rs, linha) -> new Credencial(
+                rs.getObject("id", UUID.class),
+                rs.getString("email"),
+                rs.getString("senha"),
+                TipoUsuario.valueOf(rs.getString("tipo")),
+                rs.getString("status")), email, email);
+        return resultado.isEmpty() ? null : resultado.get(0);
+    }
+
+    public void atualizarSenha(Credencial credencial, String senha) {
+        var tabela = credencial.tipo() == TipoUsuario.FUNCIONARIO ? "funcionarios" : "empresas";
+        jdbcTemplate.update("UPDATE " + tabela + " SET senha = ?, versao = versao + 1 WHERE id = ?", senha, credencial.id());
+    }
+}
@@ -0,0 +1,10 @@
+package br.com.indicaAI.API.domain.autenticacao;
+
+public enum TipoUsuario {
+    FUNCIONARIO,
+    EMPRESA;
+
+    public String getRole() {
+        return "ROLE_" + name();
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.indicaAI.API.domain.autenticacao;
+
+import br.com.indicaAI.API.domain.empresa.Empresa;
+import br.com.indicaAI.API.domain.funcionario.Funcionario;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Principal leve montado a partir das claims do JWT, sem acesso ao banco.
+ */
+public record UsuarioAutenticado(
+        UUID id,
+        String email,
+        TipoUsuario tipo,
+        String status
+) implements UserDetails {
+
+    public static final String STATUS_ATIVO = "ATIVO";
+
+    public static UsuarioAutenticado de(Object usuario) {
+        if (usuario instanceof UsuarioAutenticado u) {
+            return u;
+        }
+        if (usuario instanceof Credencial c) {
+            return new UsuarioAutenticado(c.id(), c.email(), c.tipo(), c.status());
+        }
+        if (usuario instanceof Funcionario f) {
+            return new UsuarioAutenticado(f.getId(), f.getEmail(), TipoUsuario.FUNCIONARIO, f.getStatus().name());
+        }
+        if (usuario instanceof Empresa e) {
+            var status = e.getStatus() != null ? e.getStatus().name() : STATUS_ATIVO;
+            return new UsuarioAutenticado(e.getId(), e.getEmail(), TipoUsuario.EMPRESA, status);
+        }
+        throw new IllegalArgumentException("Tipo de usuário não suportado");
+    }
+
+    public boolean isFuncionario() {
+        return tipo == TipoUsuario.FUNCIONARIO;
+    }
+
+    public boolean isEmpresa() {
+        return tipo == TipoUsuario.EMPRESA;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(tipo.getRole()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return STATUS_ATIVO.equals(status);
+    }
+}
@@ -36,10 +36,15 @@ public class Avaliacao {
     @Column(columnDefinition = "TEXT")
     private String resposta;
 
+    @Column(nullable = false)
     private LocalDateTime dataAvaliacao = LocalDateTime.now();
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private StatusAvaliacao status = StatusAvaliacao.PUBLICADA;
 
+    // Duas respostas simultâneas: a segunda falha no commit em vez de sobrescrever a primeira
+    @Version
+    private Long versao;
+
 }
\ No newline at end of file
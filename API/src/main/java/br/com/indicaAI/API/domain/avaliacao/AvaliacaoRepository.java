@@ -1,14 +1,73 @@
 package br.com.indicaAI.API.domain.avaliacao;
 
+import br.com.indicaAI.API.domain.avaliacao.dtos.DetalhamentoAvaliacaoDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface AvaliacaoRepository extends JpaRepository<Avaliacao, UUID> {
+
+    // Monta o DTO direto na consulta, trazendo só os nomes de empresa e funcionário
+    String DETALHAMENTO = """
+            select new br.com.indicaAI.API.domain.avaliacao.dtos.DetalhamentoAvaliacaoDTO(
+                a.id, e.nomeFantasia, f.nomeCompleto, a.nota, a.descricao, a.resposta, a.dataAvaliacao)
+            from Avaliacao a join a.empresa e join a.funcionario f
+            """;
+    String ORDEM = " order by a.dataAvaliacao desc, a.id desc";
+    // O "<=" redundante vira condição do índice; só o OR ficava de filtro e descartava as mais novas
+    String APOS_CURSOR = " and a.dataAvaliacao <= :data"
+            + " and (a.dataAvaliacao < :data or (a.dataAvaliacao = :data and a.id < :id))";
+
     List<Avaliacao> findAllByFuncionarioId(UUID funcionarioId);
 
     List<Avaliacao> findAllByEmpresaId(UUID empresaId);
 
     boolean existsByEmpresaIdAndFuncionarioId(UUID empresaId, UUID funcionarioId);
+
+    @Query(DETALHAMENTO + "where a.funcionario.id = :funcionarioId" + ORDEM)
+    List<DetalhamentoAvaliacaoDTO> listarDetalhadasPorFuncionario(UUID funcionarioId, Limit limite);
+
+    @Query(DETALHAMENTO + "where a.funcionario.id = :funcionarioId" + APOS_CURSOR + ORDEM)
+    List<DetalhamentoAvaliacaoDTO> listarDetalhadasPorFuncionarioApos(UUID funcionarioId, LocalDateTime data, UUID id,
+            Limit limite);
+
+    @Query(DETALHAMENTO + "where a.empresa.id = :empresaId" + ORDEM)
+    List<DetalhamentoAvaliacaoDTO> listarDetalhadasPorEmpresa(UUID empresaId, Limit limite);
+
+    @Query(DETALHAMENTO + "where a.empresa.id = :empresaId" + APOS_CURSOR + ORDEM)
+    List<DetalhamentoAvaliacaoDTO> listarDetalhadasPorEmpresaApos(UUID empresaId, LocalDateTime data, UUID id,
+            Limit limite);
+
+    // Versão das listas para a ETag, lida por chave em vez de agregar o histórico. No funcionário,
+    // avaliação nova já muda a reputação; resposta e renome da empresa incrementam versao_avaliacoes.
+    // Na empresa, tudo passa por versao_avaliacoes (ver EmpresaRepository.marcarAvaliacoesAlteradas).
+    @Query(nativeQuery = true, value = """
+            SELECT f.versao || '-' || f.versao_avaliacoes || '-' || COALESCE(r.total_avaliacoes, 0) || '-'
+                   || COALESCE(to_char(r.ultima_avaliacao, 'YYYYMMDDHH24MISSUS'), '0')
+              FROM funcionarios f
+              LEFT JOIN funcionario_reputacao r ON r.funcionario_id = f.id
+             WHERE f.id = :funcionarioId
+            """)
+    Optional<String> buscarVersaoListaPorFuncionario(UUID funcionarioId);
+
+    @Query(nativeQuery = true, value = "SELECT e.versao || '-' || e.versao_avaliacoes FROM empresas e WHERE e.id = :empresaId")
+    Optional<String> buscarVersaoListaPorEmpresa(UUID empresaId);
+
+    // Exportação: cursor do servidor com fetch size; só funciona dentro de uma transação
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(DETALHAMENTO + "where a.funcionario.id = :funcionarioId" + ORDEM)
+    Stream<DetalhamentoAvaliacaoDTO> streamDetalhadasPorFuncionario(UUID funcionarioId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(DETALHAMENTO + "where a.empresa.id = :empresaId" + ORDEM)
+    Stream<DetalhamentoAvaliacaoDTO> streamDetalhadasPorEmpresa(UUID empresaId);
 }
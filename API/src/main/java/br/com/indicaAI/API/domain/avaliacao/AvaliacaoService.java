@@ -2,42 +2,75 @@ package br.com.indicaAI.API.domain.avaliacao;
 
 import br.com.indicaAI.API.domain.avaliacao.dtos.CriarAvaliacaoDTO;
 import br.com.indicaAI.API.domain.avaliacao.dtos.DetalhamentoAvaliacaoDTO;
+import br.com.indicaAI.API.domain.avaliacao.dtos.PaginaAvaliacoesDTO;
 import br.com.indicaAI.API.domain.avaliacao.dtos.ResponderAvaliacaoDTO;
-import br.com.indicaAI.API.domain.empresa.Empresa;
 import br.com.indicaAI.API.domain.empresa.EmpresaRepository;
-import br.com.indicaAI.API.domain.funcionario.Funcionario;
 import br.com.indicaAI.API.domain.funcionario.FuncionarioRepository;
-import jakarta.transaction.Transactional;
+import br.com.indicaAI.API.domain.reputacao.RankingCidades;
+import br.com.indicaAI.API.domain.reputacao.ReputacaoRepository;
+import br.com.indicaAI.API.domain.shared.CachePerfis;
+import br.com.indicaAI.API.domain.shared.CachePerfis.Versionado;
+import br.com.indicaAI.API.domain.shared.CargaUnica;
+import org.springframework.data.domain.Limit;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.UUID;
 
 @Service
+@Timed(value = "indicaai.servico", histogram = true)
 public class AvaliacaoService {
 
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+
+    // Histórico por funcionário é o que recebe rajadas quando um perfil é compartilhado
+    public static final String CARGA_HISTORICO_FUNCIONARIO = "avaliacoes-funcionario";
+
     private final AvaliacaoRepository avaliacaoRepository;
     private final FuncionarioRepository funcionarioRepository;
     private final EmpresaRepository empresaRepository;
+    private final ReputacaoRepository reputacaoRepository;
+    private final CachePerfis cachePerfis;
+    private final CargaUnica cargaUnica;
+    private final RankingCidades rankingCidades;
+    // Leituras coalescidas abrem a transação dentro da carga única: quem espera não segura conexão
+    private final TransactionTemplate transacaoLeitura;
 
     public AvaliacaoService(AvaliacaoRepository avaliacaoRepository, FuncionarioRepository funcionarioRepository,
-            EmpresaRepository empresaRepository) {
+            EmpresaRepository empresaRepository, ReputacaoRepository reputacaoRepository, CachePerfis cachePerfis,
+            CargaUnica cargaUnica, RankingCidades rankingCidades, PlatformTransactionManager transactionManager) {
         this.avaliacaoRepository = avaliacaoRepository;
         this.funcionarioRepository = funcionarioRepository;
         this.empresaRepository = empresaRepository;
+        this.reputacaoRepository = reputacaoRepository;
+        this.cachePerfis = cachePerfis;
+        this.cargaUnica = cargaUnica;
+        this.rankingCidades = rankingCidades;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.transacaoLeitura.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
     }
 
     @Transactional
-    public DetalhamentoAvaliacaoDTO avaliar(CriarAvaliacaoDTO dados, Empresa empresaAutenticada) {
-        if (avaliacaoRepository.existsByEmpresaIdAndFuncionarioId(empresaAutenticada.getId(), dados.funcionarioId())) {
+    public DetalhamentoAvaliacaoDTO avaliar(CriarAvaliacaoDTO dados, UUID empresaId) {
+        if (avaliacaoRepository.existsByEmpresaIdAndFuncionarioId(empresaId, dados.funcionarioId())) {
             throw new IllegalArgumentException("Sua empresa já avaliou este funcionário.");
         }
 
         var funcionario = funcionarioRepository.findById(dados.funcionarioId())
                 .orElseThrow(() -> new IllegalArgumentException("Funcionário não encontrado"));
 
+        var empresa = empresaRepository.findById(empresaId)
+                .orElseThrow(() -> new IllegalArgumentException("Empresa não encontrada"));
+
         Avaliacao avaliacao = new Avaliacao();
-        avaliacao.setEmpresa(empresaAutenticada);
+        avaliacao.setEmpresa(empresa);
         avaliacao.setFuncionario(funcionario);
         avaliacao.setDescricao(dados.descricao());
         avaliacao.setStatus(StatusAvaliacao.PUBLICADA);
@@ -45,16 +78,24 @@ public class AvaliacaoService {
         avaliacao.setNota(dados.nota());
 
         avaliacaoRepository.save(avaliacao);
+        // A reputação também versiona a lista do funcionário; a da empresa tem contador próprio
+        reputacaoRepository.registrarAvaliacao(funcionario.getId(), avaliacao.getNota(), avaliacao.getDataAvaliacao());
+        empresaRepository.marcarAvaliacoesAlteradas(empresaId);
+        // Relido depois do commit mesmo com o broker fora; o eco do fanout da invalidação só repete a leitura
+        rankingCidades.registrarAvaliacao(funcionario.getId());
+        // A reputação faz parte do perfil do funcionário
+        cachePerfis.invalidar(CachePerfis.Tipo.FUNCIONARIO, funcionario.getId());
+        cargaUnica.esquecer(CARGA_HISTORICO_FUNCIONARIO, List.of(funcionario.getId()));
         return new DetalhamentoAvaliacaoDTO(avaliacao);
     }
 
     @Transactional
     public DetalhamentoAvaliacaoDTO responder(UUID idAvaliacao, ResponderAvaliacaoDTO dados,
-            Funcionario funcionarioAutenticado) {
+            UUID funcionarioId) {
         var avaliacao = avaliacaoRepository.findById(idAvaliacao)
                 .orElseThrow(() -> new IllegalArgumentException("Avaliação não encontrada"));
 
-        if (!avaliacao.getFuncionario().getId().equals(funcionarioAutenticado.getId())) {
+        if (!avaliacao.getFuncionario().getId().equals(funcionarioId)) {
             throw new IllegalArgumentException("Você não tem permissão para responder esta avaliação.");
         }
 
@@ -63,17 +104,87 @@ public class AvaliacaoService {
         }
 
         avaliacao.setResposta(dados.resposta());
+        funcionarioRepository.marcarAvaliacoesAlteradas(funcionarioId);
+        empresaRepository.marcarAvaliacoesAlteradas(avaliacao.getEmpresa().getId());
+        cargaUnica.esquecer(CARGA_HISTORICO_FUNCIONARIO, List.of(funcionarioId));
         return new DetalhamentoAvaliacaoDTO(avaliacao);
     }
 
     // Renomeado para ser genérico (usado por Empresa e Funcionário)
-    public List<DetalhamentoAvaliacaoDTO> listarPorFuncionario(UUID funcionarioId) {
-        var lista = avaliacaoRepository.findAllByFuncionarioId(funcionarioId);
-        return lista.stream().map(DetalhamentoAvaliacaoDTO::new).toList();
+    public Versionado<List<DetalhamentoAvaliacaoDTO>> listarPorFuncionario(UUID funcionarioId) {
+        return cargaUnica.executar(CARGA_HISTORICO_FUNCIONARIO, funcionarioId, "completo",
+                () -> transacaoLeitura.execute(status -> comVersaoDoFuncionario(funcionarioId,
+                        avaliacaoRepository.listarDetalhadasPorFuncionario(funcionarioId, Limit.unlimited()))));
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Versionado<List<DetalhamentoAvaliacaoDTO>> listarPorEmpresa(UUID empresaId) {
+        return comVersaoDaEmpresa(empresaId, avaliacaoRepository.listarDetalhadasPorEmpresa(empresaId, Limit.unlimited()));
+    }
+
+    // Versão avulsa, só para decidir o 304; a ETag de um 200 é a que vem junto com a lista
+    public String versaoListaPorFuncionario(UUID funcionarioId) {
+        return cargaUnica.executar(CARGA_HISTORICO_FUNCIONARIO, funcionarioId, "versao", () -> transacaoLeitura.execute(
+                status -> avaliacaoRepository.buscarVersaoListaPorFuncionario(funcionarioId).orElse("0")));
+    }
+
+    @Transactional(readOnly = true)
+    public String versaoListaPorEmpresa(UUID empresaId) {
+        return avaliacaoRepository.buscarVersaoListaPorEmpresa(empresaId).orElse("0");
+    }
+
+    public Versionado<PaginaAvaliacoesDTO> listarPorFuncionario(UUID funcionarioId, String cursor, int tamanho) {
+        var limite = limiteComSobra(tamanho);
+        return cargaUnica.executar(CARGA_HISTORICO_FUNCIONARIO, funcionarioId, tamanho + "/" + cursor,
+                () -> transacaoLeitura.execute(status -> {
+                    var itens = cursor == null
+                            ? avaliacaoRepository.listarDetalhadasPorFuncionario(funcionarioId, limite)
+                            : listarPorFuncionarioApos(funcionarioId, CursorAvaliacao.decodificar(cursor), limite);
+                    return comVersaoDoFuncionario(funcionarioId, montarPagina(itens, limite));
+                }));
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Versionado<PaginaAvaliacoesDTO> listarPorEmpresa(UUID empresaId, String cursor, int tamanho) {
+        var limite = limiteComSobra(tamanho);
+        var itens = cursor == null
+                ? avaliacaoRepository.listarDetalhadasPorEmpresa(empresaId, limite)
+                : listarPorEmpresaApos(empresaId, CursorAvaliacao.decodificar(cursor), limite);
+        return comVersaoDaEmpresa(empresaId, montarPagina(itens, limite));
     }
 
-    public List<DetalhamentoAvaliacaoDTO> listarPorEmpresa(UUID empresaId) {
-        var lista = avaliacaoRepository.findAllByEmpresaId(empresaId);
-        return lista.stream().map(DetalhamentoAvaliacaoDTO::new).toList();
+    // Mesma transação REPEATABLE_READ da lista: versão e corpo saem do mesmo snapshot, na mesma réplica
+    private <T> Versionado<T> comVersaoDoFuncionario(UUID funcionarioId, T lista) {
+        return new Versionado<>(avaliacaoRepository.buscarVersaoListaPorFuncionario(funcionarioId).orElse("0"), lista);
+    }
+
+    private <T> Versionado<T> comVersaoDaEmpresa(UUID empresaId, T lista) {
+        return new Versionado<>(avaliacaoRepository.buscarVersaoListaPorEmpresa(empresaId).orElse("0"), lista);
+    }
+
+    private List<DetalhamentoAvaliacaoDTO> listarPorFuncionarioApos(UUID funcionarioId, CursorAvaliacao cursor,
+            Limit limite) {
+        return avaliacaoRepository.listarDetalhadasPorFuncionarioApos(funcionarioId, cursor.data(), cursor.id(), limite);
+    }
+
+    private List<DetalhamentoAvaliacaoDTO> listarPorEmpresaApos(UUID empresaId, CursorAvaliacao cursor, Limit limite) {
+        return avaliacaoRepository.listarDetalhadasPorEmpresaApos(empresaId, cursor.data(), cursor.id(), limite);
+    }
+
+    // Busca um item a mais só para saber se existe próxima página
+    private Limit limiteComSobra(int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA);
+        }
+        return Limit.of(tamanho + 1);
+    }
+
+    private PaginaAvaliacoesDTO montarPagina(List<DetalhamentoAvaliacaoDTO> itens, Limit limite) {
+        var tamanho = limite.max() - 1;
+        if (itens.size() <= tamanho) {
+            return new PaginaAvaliacoesDTO(itens, null);
+        }
+        var pagina = itens.subList(0, tamanho);
+        return new PaginaAvaliacoesDTO(List.copyOf(pagina), CursorAvaliacao.depois(pagina.get(tamanho - 1)).codificar());
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package br.com.indicaAI.API.domain.avaliacao;
+
+import br.com.indicaAI.API.domain.avaliacao.dtos.DetalhamentoAvaliacaoDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posição na listagem ordenada por (dataAvaliacao desc, id desc). Vai para o cliente
+ * como texto opaco; o formato interno pode mudar sem quebrar ninguém.
+ */
+public record CursorAvaliacao(LocalDateTime data, UUID id) {
+
+    public static CursorAvaliacao depois(DetalhamentoAvaliacaoDTO ultimo) {
+        return new CursorAvaliacao(ultimo.dataAvaliacao(), ultimo.id());
+    }
+
+    public String codificar() {
+        var texto = data + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorAvaliacao decodificar(String cursor) {
+        try {
+            var texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var partes = texto.split("\\|", 2);
+            return new CursorAvaliacao(LocalDateTime.parse(partes[0]), UUID.fromString(partes[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package br.com.indicaAI.API.domain.avaliacao;
+
+import br.com.indicaAI.API.domain.avaliacao.dtos.DetalhamentoAvaliacaoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Exporta o histórico de avaliações linha a linha a partir de um cursor do banco, sem montar
+ * a lista em memória. Roda numa transação somente leitura própria, porque é chamado de dentro
+ * da tarefa assíncrona do download, fora da thread do request. Cada exportação segura uma conexão
+ * do pool até o fim, por isso o número simultâneo é limitado (api.avaliacoes.exportacao.simultaneas).
+ */
+@Service
+public class ExportacaoAvaliacoesService {
+
+    private static final String CABECALHO_CSV = "id,nomeEmpresa,nomeFuncionario,nota,descricao,resposta,dataAvaliacao\n";
+
+    private final AvaliacaoRepository avaliacaoRepository;
+    private final TransactionTemplate transacaoLeitura;
+    private final ObjectMapper objectMapper;
+    private final Semaphore vagas;
+    private final Duration timeout;
+    private final Duration retryAfter;
+
+    public ExportacaoAvaliacoesService(AvaliacaoRepository avaliacaoRepository,
+            PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+            @Value("${api.avaliacoes.exportacao.simultaneas:3}") int simultaneas,
+            @Value("${api.avaliacoes.exportacao.timeout:30m}") Duration timeout,
+            @Value("${api.avaliacoes.exportacao.retry-after:30s}") Duration retryAfter) {
+        this.avaliacaoRepository = avaliacaoRepository;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.vagas = new Semaphore(simultaneas);
+        this.timeout = timeout;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Reserva uma vaga antes de a resposta começar; sem vaga, ExportacaoIndisponivelException
+     * (503 com Retry-After). Quem reservou devolve com {@link #liberar()} quando o download acaba.
+     */
+    public void reservar() {
+        if (!vagas.tryAcquire()) {
+            throw new ExportacaoIndisponivelException(retryAfter);
+        }
+    }
+
+    public void liberar() {
+        vagas.release();
+    }
+
+    // Timeout do download inteiro; o timeout assíncrono padrão do MVC continua valendo para o resto
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void exportarPorFuncionario(UUID funcionarioId, FormatoExportacao formato, OutputStream saida) {
+        exportar(() -> avaliacaoRepository.streamDetalhadasPorFuncionario(funcionarioId), formato, saida);
+    }
+
+    public void exportarPorEmpresa(UUID empresaId, FormatoExportacao formato, OutputStream saida) {
+        exportar(() -> avaliacaoRepository.streamDetalhadasPorEmpresa(empresaId), formato, saida);
+    }
+
+    private void exportar(Supplier<Stream<DetalhamentoAvaliacaoDTO>> consulta, FormatoExportacao formato, OutputStream saida) {
+        var escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        transacaoLeitura.executeWithoutResult(status -> {
+            try (var avaliacoes = consulta.get()) {
+                if (formato == FormatoExportacao.CSV) {
+                    escritor.write(CABECALHO_CSV);
+                }
+                avaliacoes.forEach(avaliacao -> escrever(avaliacao, formato, escritor));
+                escritor.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void escrever(DetalhamentoAvaliacaoDTO avaliacao, FormatoExportacao formato, Writer escritor) {
+        try {
+            if (formato == FormatoExportacao.NDJSON) {
+                escritor.write(objectMapper.writeValueAsString(avaliacao));
+                escritor.write('\n');
+                return;
+            }
+            escritor.write(String.join(",",
+                    String.valueOf(avaliacao.id()),
+                    csv(avaliacao.nomeEmpresa()),
+                    csv(avaliacao.nomeFuncionario()),
+                    avaliacao.nota() == null ? "" : avaliacao.nota().toString(),
+                    csv(avaliacao.descricao()),
+                    csv(avaliacao.resposta()),
+                    avaliacao.dataAvaliacao() == null ? "" : avaliacao.dataAvaliacao().toString()));
+            escritor.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.contains(",") || valor.contains("\"") || valor.contains("\n") || valor.contains("\r")) {
+            return "\"" + valor.replace("\"", "\"\"") + "\"";
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.indicaAI.API.domain.avaliacao;
+
+import java.time.Duration;
+
+public class ExportacaoIndisponivelException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ExportacaoIndisponivelException(Duration retryAfter) {
+        super("Muitas exportações em andamento. Tente novamente em instantes.");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.indicaAI.API.domain.avaliacao;
+
+public enum FormatoExportacao {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String tipoConteudo;
+    private final String extensao;
+
+    FormatoExportacao(String tipoConteudo, String extensao) {
+        this.tipoConteudo = tipoConteudo;
+        this.extensao = extensao;
+    }
+
+    public String getTipoConteudo() {
+        return tipoConteudo;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    // Parâmetro da URL em minúsculas, como a extensão do arquivo (?formato=csv)
+    public static FormatoExportacao porExtensao(String extensao) {
+        for (var formato : values()) {
+            if (formato.extensao.equalsIgnoreCase(extensao)) {
+                return formato;
+            }
+        }
+        throw new IllegalArgumentException("Formato de exportação inválido: use ndjson ou csv");
+    }
+}
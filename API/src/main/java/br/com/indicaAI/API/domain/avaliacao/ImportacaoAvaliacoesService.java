@@ -0,0 +1,244 @@
+package br.com.indicaAI.API.domain.avaliacao;
+
+import br.com.indicaAI.API.domain.avaliacao.dtos.CriarAvaliacaoDTO;
+import br.com.indicaAI.API.domain.avaliacao.dtos.ResultadoImportacaoDTO;
+import br.com.indicaAI.API.domain.empresa.EmpresaRepository;
+import br.com.indicaAI.API.domain.reputacao.ReconciliacaoReputacao;
+import br.com.indicaAI.API.domain.shared.CargaUnica;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de avaliações em NDJSON (uma CriarAvaliacaoDTO por linha). O corpo é lido em
+ * streaming e processado em blocos de tamanho fixo: cada bloco resolve funcionários e
+ * duplicidades com uma consulta por conjunto, insere num batch JDBC e atualiza a reputação
+ * na mesma transação. Só um bloco fica em memória, qualquer que seja o tamanho do arquivo.
+ */
+@Service
+@Timed(value = "indicaai.servico", histogram = true)
+public class ImportacaoAvaliacoesService {
+
+    private static final String SQL_INSERIR = """
+            INSERT INTO avaliacoes (id, funcionario_id, empresa_id, nota, descricao, data_avaliacao, status)
+            VALUES (?, ?, ?, ?, ?, ?, 'PUBLICADA')
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmpresaRepository empresaRepository;
+    private final ReconciliacaoReputacao reconciliacaoReputacao;
+    private final CargaUnica cargaUnica;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int tamanhoBloco;
+    private final int tamanhoMaximoLinha;
+    private final Logger logger = LoggerFactory.getLogger(ImportacaoAvaliacoesService.class);
+
+    public ImportacaoAvaliacoesService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            EmpresaRepository empresaRepository, ReconciliacaoReputacao reconciliacaoReputacao,
+            CargaUnica cargaUnica, ObjectMapper objectMapper, Validator validator,
+            @Value("${api.avaliacoes.importacao.tamanho-bloco:500}") int tamanhoBloco,
+            @Value("${api.avaliacoes.importacao.tamanho-maximo-linha:16384}") int tamanhoMaximoLinha) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.empresaRepository = empresaRepository;
+        this.reconciliacaoReputacao = reconciliacaoReputacao;
+        this.cargaUnica = cargaUnica;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.tamanhoBloco = tamanhoBloco;
+        this.tamanhoMaximoLinha = tamanhoMaximoLinha;
+    }
+
+    /**
+     * Entrega os resultados por bloco, na ordem em que ficam prontos: linhas inválidas saem
+     * antes das válidas do mesmo bloco, por isso cada resultado traz o número da linha.
+     * Como em /avaliacoes/criar, o empresaId da linha é ignorado e vale o da empresa autenticada.
+     * Linha acima de tamanhoMaximoLinha caracteres vira erro daquela linha sem ser guardada inteira.
+     */
+    public void importar(InputStream entrada, UUID empresaId, Consumer<List<ResultadoImportacaoDTO>> saida) throws IOException {
+        if (!empresaRepository.existsById(empresaId)) {
+            throw new IllegalArgumentException("Empresa não encontrada");
+        }
+
+        var leitor = new LeitorLinhas(new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8)),
+                tamanhoMaximoLinha);
+        List<LinhaValida> bloco = new ArrayList<>(tamanhoBloco);
+        List<ResultadoImportacaoDTO> resultados = new ArrayList<>(tamanhoBloco);
+        long numero = 0;
+        String linha;
+        while ((linha = leitor.proxima()) != null) {
+            numero++;
+            String erro;
+            if (leitor.excedeu()) {
+                erro = "Linha maior que o limite de " + tamanhoMaximoLinha + " caracteres";
+            } else if (linha.isBlank()) {
+                continue;
+            } else {
+                erro = validar(linha, numero, bloco);
+            }
+            if (erro != null) {
+                resultados.add(ResultadoImportacaoDTO.erro(numero, erro));
+            }
+            if (bloco.size() == tamanhoBloco) {
+                resultados.addAll(gravarBloco(bloco, empresaId));
+                bloco.clear();
+            }
+            if (resultados.size() >= tamanhoBloco) {
+                saida.accept(resultados);
+                resultados = new ArrayList<>(tamanhoBloco);
+            }
+        }
+        if (!bloco.isEmpty()) {
+            resultados.addAll(gravarBloco(bloco, empresaId));
+        }
+        if (!resultados.isEmpty()) {
+            saida.accept(resultados);
+        }
+    }
+
+    private String validar(String linha, long numero, List<LinhaValida> bloco) {
+        CriarAvaliacaoDTO dados;
+        try {
+            dados = objectMapper.readValue(linha, CriarAvaliacaoDTO.class);
+        } catch (JsonProcessingException e) {
+            return "JSON inválido";
+        }
+        var violacoes = validator.validate(dados);
+        if (!violacoes.isEmpty()) {
+            return violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        bloco.add(new LinhaValida(numero, dados));
+        return null;
+    }
+
+    private List<ResultadoImportacaoDTO> gravarBloco(List<LinhaValida> bloco, UUID empresaId) {
+        try {
+            return transactionTemplate.execute(status -> inserir(bloco, empresaId));
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao gravar bloco de {} avaliações da empresa {}: {}", bloco.size(), empresaId, e.getMessage());
+            return bloco.stream()
+                    .map(linha -> ResultadoImportacaoDTO.erro(linha.numero(), "Falha ao gravar a avaliação"))
+                    .toList();
+        }
+    }
+
+    private List<ResultadoImportacaoDTO> inserir(List<LinhaValida> bloco, UUID empresaId) {
+        var funcionarioIds = bloco.stream().map(linha -> linha.dados().funcionarioId()).distinct().toArray(UUID[]::new);
+        PreparedStatementSetter porIds = ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", funcionarioIds));
+        Set<UUID> existentes = new HashSet<>(jdbcTemplate.query(
+                "SELECT id FROM funcionarios WHERE id = ANY(?)", porIds, (rs, i) -> rs.getObject(1, UUID.class)));
+        Set<UUID> avaliados = new HashSet<>(jdbcTemplate.query(
+                "SELECT funcionario_id FROM avaliacoes WHERE empresa_id = ? AND funcionario_id = ANY(?)",
+                ps -> {
+                    ps.setObject(1, empresaId);
+                    ps.setArray(2, ps.getConnection().createArrayOf("uuid", funcionarioIds));
+                },
+                (rs, i) -> rs.getObject(1, UUID.class)));
+
+        var agora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> insercoes = new ArrayList<>(bloco.size());
+        List<ResultadoImportacaoDTO> resultados = new ArrayList<>(bloco.size());
+        for (LinhaValida linha : bloco) {
+            var funcionarioId = linha.dados().funcionarioId();
+            if (!existentes.contains(funcionarioId)) {
+                resultados.add(ResultadoImportacaoDTO.erro(linha.numero(), "Funcionário não encontrado"));
+            } else if (!avaliados.add(funcionarioId)) {
+                // Já avaliado no banco ou numa linha anterior do mesmo bloco
+                resultados.add(ResultadoImportacaoDTO.erro(linha.numero(), "Sua empresa já avaliou este funcionário."));
+            } else {
+                var id = UUID.randomUUID();
+                insercoes.add(new Object[]{id, funcionarioId, empresaId, linha.dados().nota(), linha.dados().descricao(), agora});
+                resultados.add(ResultadoImportacaoDTO.criada(linha.numero(), id));
+            }
+        }
+
+        jdbcTemplate.batchUpdate(SQL_INSERIR, insercoes);
+        if (!insercoes.isEmpty()) {
+            empresaRepository.marcarAvaliacoesAlteradas(empresaId);
+        }
+        var avaliadosNoBloco = insercoes.stream().map(valores -> (UUID) valores[1]).toList();
+        reconciliacaoReputacao.reconciliar(avaliadosNoBloco);
+        cargaUnica.esquecer(AvaliacaoService.CARGA_HISTORICO_FUNCIONARIO, avaliadosNoBloco);
+        return resultados;
+    }
+
+    private record LinhaValida(long numero, CriarAvaliacaoDTO dados) {
+    }
+
+    /**
+     * readLine sem limite: um corpo sem quebra de linha iria inteiro para a memória. Aqui cada
+     * linha guarda no máximo limite caracteres e o excedente é descartado até a próxima quebra.
+     */
+    private static final class LeitorLinhas {
+
+        private final BufferedReader leitor;
+        private final int limite;
+        private final StringBuilder linha;
+        private boolean excedeu;
+
+        LeitorLinhas(BufferedReader leitor, int limite) {
+            this.leitor = leitor;
+            this.limite = limite;
+            this.linha = new StringBuilder();
+        }
+
+        // null no fim do corpo; \n, \r ou \r\n terminam a linha, como em readLine
+        String proxima() throws IOException {
+            linha.setLength(0);
+            excedeu = false;
+            int c = leitor.read();
+            if (c == -1) {
+                return null;
+            }
+            while (c != -1 && c != '\n' && c != '\r') {
+                if (linha.length() < limite) {
+                    linha.append((char) c);
+                } else {
+                    excedeu = true;
+                }
+                c = leitor.read();
+            }
+            if (c == '\r') {
+                leitor.mark(1);
+                if (leitor.read() != '\n') {
+                    leitor.reset();
+                }
+            }
+            return excedeu ? "" : linha.toString();
+        }
+
+        boolean excedeu() {
+            return excedeu;
+        }
+    }
+}
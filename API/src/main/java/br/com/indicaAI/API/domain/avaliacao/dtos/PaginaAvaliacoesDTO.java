@@ -0,0 +1,9 @@
+package br.com.indicaAI.API.domain.avaliacao.dtos;
+
+import java.util.List;
+
+public record PaginaAvaliacoesDTO(
+        List<DetalhamentoAvaliacaoDTO> itens,
+        String proximoCursor
+) {
+}
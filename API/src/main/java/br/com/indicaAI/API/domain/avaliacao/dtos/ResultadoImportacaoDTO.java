@@ -0,0 +1,21 @@
+package br.com.indicaAI.API.domain.avaliacao.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ResultadoImportacaoDTO(
+        long linha,
+        String status,
+        UUID avaliacaoId,
+        String erro
+) {
+    public static ResultadoImportacaoDTO criada(long linha, UUID avaliacaoId) {
+        return new ResultadoImportacaoDTO(linha, "CRIADA", avaliacaoId, null);
+    }
+
+    public static ResultadoImportacaoDTO erro(long linha, String erro) {
+        return new ResultadoImportacaoDTO(linha, "ERRO", null, erro);
+    }
+}
@@ -42,6 +42,9 @@ public class Empresa implements UserDetails {
     @Enumerated(EnumType.STRING)
     private StatusEmpresa status = StatusEmpresa.ATIVO;
 
+    @Version
+    private Long versao;
+
     public void inativar() {
         this.status = StatusEmpresa.INATIVO;
     }
@@ -1,6 +1,8 @@
 package br.com.indicaAI.API.domain.empresa;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.UUID;
@@ -10,4 +12,17 @@ public interface EmpresaRepository extends JpaRepository<Empresa, UUID> {
     boolean existsByCnpj(String cnpj);
     boolean existsByEmail(String email);
     Empresa findByEmail(String email);
+
+    // Versão da lista de avaliações feitas (AvaliacaoRepository.buscarVersaoListaPorEmpresa)
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE empresas SET versao_avaliacoes = versao_avaliacoes + 1 WHERE id = :id")
+    void marcarAvaliacoesAlteradas(UUID id);
+
+    // O nome do funcionário aparece na lista de toda empresa que o avaliou; renome é raro
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE empresas SET versao_avaliacoes = versao_avaliacoes + 1
+             WHERE id IN (SELECT empresa_id FROM avaliacoes WHERE funcionario_id = :funcionarioId)
+            """)
+    void marcarAvaliacoesAlteradasPorFuncionario(UUID funcionarioId);
 }
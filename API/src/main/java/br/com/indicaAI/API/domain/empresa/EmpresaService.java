@@ -1,32 +1,55 @@
 package br.com.indicaAI.API.domain.empresa;
 
+import br.com.indicaAI.API.domain.autenticacao.AutenticacaoService;
 import br.com.indicaAI.API.domain.empresa.dtos.AlterarSenhaDTO;
 import br.com.indicaAI.API.domain.empresa.dtos.AtualizarEmpresaDTO;
 import br.com.indicaAI.API.domain.empresa.dtos.CadastroEmpresaDTO;
 import br.com.indicaAI.API.domain.empresa.dtos.InformacoesEmpresaDTO;
+import br.com.indicaAI.API.domain.funcionario.FuncionarioRepository;
+import br.com.indicaAI.API.domain.shared.CachePerfis;
+import br.com.indicaAI.API.domain.shared.IdentificadoresCadastrados;
+import br.com.indicaAI.API.domain.shared.IdentificadoresCadastrados.Identificador;
+import br.com.indicaAI.API.infrastructure.security.RevogacaoTokens;
 import jakarta.transaction.Transactional;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
 
 @Service
+@Timed(value = "indicaai.servico", histogram = true)
 public class EmpresaService {
 
     private final EmpresaRepository empresaRepository;
     private final PasswordEncoder passwordEncoder;
-
-    public EmpresaService(EmpresaRepository empresaRepository, PasswordEncoder passwordEncoder) {
+    private final RevogacaoTokens revogacaoTokens;
+    private final AutenticacaoService autenticacaoService;
+    private final CachePerfis cachePerfis;
+    private final IdentificadoresCadastrados identificadores;
+    private final FuncionarioRepository funcionarioRepository;
+
+    public EmpresaService(EmpresaRepository empresaRepository, PasswordEncoder passwordEncoder,
+            RevogacaoTokens revogacaoTokens, AutenticacaoService autenticacaoService, CachePerfis cachePerfis,
+            IdentificadoresCadastrados identificadores, FuncionarioRepository funcionarioRepository) {
         this.empresaRepository = empresaRepository;
         this.passwordEncoder = passwordEncoder;
+        this.revogacaoTokens = revogacaoTokens;
+        this.autenticacaoService = autenticacaoService;
+        this.cachePerfis = cachePerfis;
+        this.identificadores = identificadores;
+        this.funcionarioRepository = funcionarioRepository;
     }
 
     @Transactional
     public Empresa cadastrarEmpresa(CadastroEmpresaDTO dados) {
-        if (empresaRepository.existsByCnpj(dados.cnpj())) {
+        // Consulta prévia só quando o filtro não descarta; a constraint UNIQUE decide no insert
+        if (identificadores.talvezExista(Identificador.CNPJ, dados.cnpj())
+                && empresaRepository.existsByCnpj(dados.cnpj())) {
             throw new IllegalArgumentException("CNPJ já cadastrado");
         }
-        if (empresaRepository.existsByEmail(dados.email())) {
+        if (identificadores.talvezExista(Identificador.EMAIL_EMPRESA, dados.email())
+                && empresaRepository.existsByEmail(dados.email())) {
             throw new IllegalArgumentException("Email já cadastrado");
         }
 
@@ -38,7 +61,10 @@ public class EmpresaService {
         novaEmpresa.setSenha(passwordEncoder.encode(dados.senha()));
         novaEmpresa.setStatus(StatusEmpresa.ATIVO);
 
-        return empresaRepository.save(novaEmpresa);
+        var salva = empresaRepository.save(novaEmpresa);
+        identificadores.registrar(Identificador.CNPJ, salva.getCnpj());
+        identificadores.registrar(Identificador.EMAIL_EMPRESA, salva.getEmail());
+        return salva;
     }
 
     @Transactional
@@ -50,10 +76,21 @@ public class EmpresaService {
             throw new IllegalArgumentException("Empresa inativa não pode ser editada.");
         }
 
+        if (dados.email() != null || dados.senha() != null) {
+            autenticacaoService.invalidar(empresa.getEmail(), dados.email());
+        }
+
         if (dados.razaoSocial() != null) empresa.setRazaoSocial(dados.razaoSocial());
-        if (dados.nomeFantasia() != null) empresa.setNomeFantasia(dados.nomeFantasia());
-        if (dados.email() != null) empresa.setEmail(dados.email());
+        if (dados.nomeFantasia() != null) {
+            empresa.setNomeFantasia(dados.nomeFantasia());
+            funcionarioRepository.marcarAvaliacoesAlteradasPorEmpresa(empresa.getId());
+        }
+        if (dados.email() != null) {
+            empresa.setEmail(dados.email());
+            identificadores.registrar(Identificador.EMAIL_EMPRESA, dados.email());
+        }
         if (dados.senha() != null) empresa.setSenha(passwordEncoder.encode(dados.senha()));
+        cachePerfis.invalidar(CachePerfis.Tipo.EMPRESA, empresa.getId());
 
         return empresa;
     }
@@ -64,17 +101,27 @@ public class EmpresaService {
                 .orElseThrow(() -> new IllegalArgumentException("Empresa não encontrada"));
 
         empresa.inativar();
+        cachePerfis.invalidar(CachePerfis.Tipo.EMPRESA, id);
+        revogacaoTokens.revogar(id);
+        autenticacaoService.invalidar(empresa.getEmail());
     }
 
     public InformacoesEmpresaDTO detalharEmpresa(UUID id) {
-        var empresa = empresaRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Empresa não encontrada"));
+        return detalharVersionado(id).valor();
+    }
 
-        if (empresa.getStatus() == StatusEmpresa.INATIVO) {
-            throw new IllegalArgumentException("Empresa inativa / Conta desativada.");
-        }
+    // Perfil com a versão (@Version) usada na ETag, do cache de perfis
+    public CachePerfis.Versionado<InformacoesEmpresaDTO> detalharVersionado(UUID id) {
+        return cachePerfis.buscar(CachePerfis.Tipo.EMPRESA, id, () -> {
+            var empresa = empresaRepository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Empresa não encontrada"));
+
+            if (empresa.getStatus() == StatusEmpresa.INATIVO) {
+                throw new IllegalArgumentException("Empresa inativa / Conta desativada.");
+            }
 
-        return new InformacoesEmpresaDTO(empresa);
+            return new CachePerfis.Versionado<>(String.valueOf(empresa.getVersao()), new InformacoesEmpresaDTO(empresa));
+        });
     }
 
     @Transactional
@@ -89,6 +136,7 @@ public class EmpresaService {
         }
 
         empresa.setSenha(passwordEncoder.encode(dados.novaSenha()));
+        autenticacaoService.invalidar(empresa.getEmail());
 
     }
 }
\ No newline at end of file
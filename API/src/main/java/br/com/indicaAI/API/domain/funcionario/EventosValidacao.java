@@ -0,0 +1,161 @@
+package br.com.indicaAI.API.domain.funcionario;
+
+import br.com.indicaAI.API.domain.funcionario.dtos.StatusValidacaoDTO;
+import br.com.indicaAI.API.infrastructure.datasource.LeituraPrimario;
+import br.com.indicaAI.API.infrastructure.rabbitmq.RabbitMQConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Conexões SSE abertas neste nó por funcionário aguardando validação. Quando um listener de
+ * validação confirma a transição, o evento sai pelo fanout validacao.status depois do commit e
+ * cada nó entrega para os emissores que tem; o próprio nó entrega na hora, e a cópia que volta
+ * do fanout não encontra mais ninguém (o emissor é encerrado no primeiro status final).
+ */
+@Component
+public class EventosValidacao {
+
+    private static final String EVENTO_STATUS = "status";
+
+    private final Map<UUID, List<SseEmitter>> emissores = new ConcurrentHashMap<>();
+    private final FuncionarioRepository funcionarioRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final Duration timeout;
+    private final Counter entregues;
+    private final Counter falhasPublicacao;
+    private final Logger logger = LoggerFactory.getLogger(EventosValidacao.class);
+
+    public EventosValidacao(FuncionarioRepository funcionarioRepository, RabbitTemplate rabbitTemplate,
+            MeterRegistry meterRegistry, @Value("${api.validacao.eventos.timeout:30m}") Duration timeout) {
+        this.funcionarioRepository = funcionarioRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.timeout = timeout;
+        this.entregues = meterRegistry.counter("indicaai.validacao.eventos.entregues");
+        this.falhasPublicacao = meterRegistry.counter("indicaai.validacao.eventos.publicacao.falhas");
+        Gauge.builder("indicaai.validacao.eventos.conexoes", emissores,
+                        mapa -> mapa.values().stream().mapToInt(List::size).sum())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre o stream e já envia o status atual. O emissor é registrado antes da leitura: uma
+     * transição que aconteça no meio chega pelo evento ou pela própria leitura. Status já final
+     * encerra o stream logo depois do envio. O stream não passa da expiração do token que o abriu.
+     */
+    public SseEmitter inscrever(UUID funcionarioId, Instant expiracaoToken) {
+        var restante = Duration.between(Instant.now(), expiracaoToken);
+        var emitter = new SseEmitter(Math.max(1, Math.min(timeout.toMillis(), restante.toMillis())));
+        emissores.compute(funcionarioId, (id, lista) -> {
+            var atual = lista == null ? new CopyOnWriteArrayList<SseEmitter>() : lista;
+            atual.add(emitter);
+            return atual;
+        });
+        emitter.onCompletion(() -> remover(funcionarioId, emitter));
+        emitter.onTimeout(() -> remover(funcionarioId, emitter));
+        emitter.onError(erro -> remover(funcionarioId, emitter));
+
+        // Primário: a réplica pode ainda não ter a transição que já saiu pelo fanout
+        var funcionario = LeituraPrimario.executar(() -> funcionarioRepository.findById(funcionarioId));
+        if (funcionario.isEmpty()) {
+            remover(funcionarioId, emitter);
+            throw new IllegalArgumentException("Funcionário não encontrado");
+        }
+        enviar(emitter, new StatusValidacaoDTO(funcionarioId, funcionario.get().getStatus(), null));
+        return emitter;
+    }
+
+    public void notificar(UUID funcionarioId, StatusFuncionario status, String motivoRejeicao) {
+        var evento = new StatusValidacaoDTO(funcionarioId, status, motivoRejeicao);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            entregar(evento);
+            publicar(evento);
+            return;
+        }
+        // O cliente recarrega o perfil ao receber o evento, então só depois do commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entregar(evento);
+                publicar(evento);
+            }
+        });
+    }
+
+    @RabbitListener(queues = "#{" + RabbitMQConfig.FILA_STATUS_VALIDACAO + ".name}")
+    public void receber(StatusValidacaoDTO evento) {
+        entregar(evento);
+    }
+
+    // Comentário SSE periódico: mantém a conexão viva em proxies e descobre clientes que já saíram
+    @Scheduled(fixedDelayString = "${api.validacao.eventos.heartbeat:25s}")
+    public void manterConexoes() {
+        emissores.forEach((id, lista) -> lista.forEach(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException e) {
+                remover(id, emitter);
+            }
+        }));
+    }
+
+    private void entregar(StatusValidacaoDTO evento) {
+        var lista = emissores.get(evento.funcionarioId());
+        if (lista != null) {
+            lista.forEach(emitter -> enviar(emitter, evento));
+        }
+    }
+
+    private void enviar(SseEmitter emitter, StatusValidacaoDTO evento) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENTO_STATUS).data(evento));
+            entregues.increment();
+            if (evento.status() != StatusFuncionario.PENDENTE_VALIDACAO) {
+                // Sai do registro já aqui: o onCompletion só roda quando o container fecha a requisição
+                remover(evento.funcionarioId(), emitter);
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectou ou o emissor já foi encerrado
+            remover(evento.funcionarioId(), emitter);
+        }
+    }
+
+    private void publicar(StatusValidacaoDTO evento) {
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_STATUS_VALIDACAO, "", evento);
+        } catch (AmqpException e) {
+            // Clientes em outros nós recebem o status na reconexão, que relê o banco
+            falhasPublicacao.increment();
+            logger.warn("Falha ao publicar status de validação do funcionário {}: {}", evento.funcionarioId(),
+                    e.getMessage());
+        }
+    }
+
+    private void remover(UUID funcionarioId, SseEmitter emitter) {
+        emissores.computeIfPresent(funcionarioId, (id, lista) -> {
+            lista.remove(emitter);
+            return lista.isEmpty() ? null : lista;
+        });
+    }
+}
@@ -4,6 +4,7 @@ import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
@@ -33,16 +34,24 @@ public class Funcionario implements UserDetails {
     @Column(nullable = false)
     private String senha;
 
-    @Column(columnDefinition = "TEXT")
-    private String fotoRostoUrl;
+    // Referência no armazenamento de fotos (ou URL externa); o base64 não fica mais na linha
+    @Column(length = 2048)
+    private String fotoRostoRef;
 
-    @Column(columnDefinition = "TEXT")
-    private String fotoDocumentoUrl;
+    @Column(length = 2048)
+    private String fotoDocumentoRef;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private StatusFuncionario status;
 
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime dataCadastro = LocalDateTime.now();
+
+    // Também incrementada pelos UPDATEs via JDBC (listener em lote, senha, migração de fotos)
+    @Version
+    private Long versao;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_FUNCIONARIO"));
@@ -1,8 +1,13 @@
 package br.com.indicaAI.API.domain.funcionario;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface FuncionarioRepository extends JpaRepository<Funcionario, UUID> {
@@ -13,6 +18,85 @@ public interface FuncionarioRepository extends JpaRepository<Funcionario, UUID>
 
     Funcionario findByEmail(String email);
 
-    java.util.List<Funcionario> findAllByNomeCompletoContainingIgnoreCaseOrCpfContaining(String nome, String cpf);
+    String COLUNAS_BUSCA = """
+            SELECT f.id, f.nome_completo AS nomeCompleto, f.email, f.cpf, f.status, f.cidade, f.sobre,
+                   COALESCE(r.total_avaliacoes, 0) AS totalAvaliacoes, COALESCE(r.soma_notas, 0) AS somaNotas,
+                   COALESCE(r.notas_1, 0) AS notas1, COALESCE(r.notas_2, 0) AS notas2, COALESCE(r.notas_3, 0) AS notas3,
+                   COALESCE(r.notas_4, 0) AS notas4, COALESCE(r.notas_5, 0) AS notas5,
+                   r.ultima_avaliacao AS ultimaAvaliacao
+              FROM funcionarios f
+              LEFT JOIN funcionario_reputacao r ON r.funcionario_id = f.id
+            """;
+    String NOME_NORMALIZADO = "f_unaccent(lower(f.nome_completo))";
+    String CPF_NORMALIZADO = "regexp_replace(f.cpf, '[^0-9]', '', 'g')";
+
+    // Substring (LIKE) ou parecido (%); os dois usam o índice trigram parcial de ativos
+    @Query(nativeQuery = true, value = COLUNAS_BUSCA
+            + "WHERE f.status = 'ATIVO' AND (" + NOME_NORMALIZADO + " LIKE '%' || f_unaccent(lower(:padrao)) || '%'"
+            + " OR " + NOME_NORMALIZADO + " % f_unaccent(lower(:termo)))"
+            + " ORDER BY similarity(" + NOME_NORMALIZADO + ", f_unaccent(lower(:termo))) DESC, f.nome_completo, f.id"
+            + " LIMIT :limite OFFSET :deslocamento")
+    List<ResultadoBusca> buscarAtivosPorNome(String termo, String padrao, int limite, long deslocamento);
+
+    @Query(nativeQuery = true, value = COLUNAS_BUSCA
+            + "WHERE f.status = 'ATIVO' AND " + CPF_NORMALIZADO + " = :cpf")
+    List<ResultadoBusca> buscarAtivoPorCpf(String cpf);
+
+    @Query(nativeQuery = true, value = COLUNAS_BUSCA
+            + "WHERE f.status = 'ATIVO' AND " + CPF_NORMALIZADO + " LIKE :prefixo || '%'"
+            + " ORDER BY " + CPF_NORMALIZADO + " LIMIT :limite OFFSET :deslocamento")
+    List<ResultadoBusca> buscarAtivosPorPrefixoCpf(String prefixo, int limite, long deslocamento);
+
+    // Versão do detalhamento (cadastro + reputação) para a ETag, sem carregar a entidade
+    @Query(nativeQuery = true, value = """
+            SELECT f.versao || '-' || COALESCE(r.total_avaliacoes, 0) || '-' || COALESCE(r.soma_notas, 0)
+              FROM funcionarios f
+              LEFT JOIN funcionario_reputacao r ON r.funcionario_id = f.id
+             WHERE f.id = :id
+            """)
+    Optional<String> buscarVersaoDetalhe(UUID id);
+
+    // Versão da lista de avaliações recebidas (AvaliacaoRepository.buscarVersaoListaPorFuncionario)
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE funcionarios SET versao_avaliacoes = versao_avaliacoes + 1 WHERE id = :id")
+    void marcarAvaliacoesAlteradas(UUID id);
+
+    // O nome da empresa aparece no histórico de todo funcionário que ela avaliou; renome é raro
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE funcionarios SET versao_avaliacoes = versao_avaliacoes + 1
+             WHERE id IN (SELECT funcionario_id FROM avaliacoes WHERE empresa_id = :empresaId)
+            """)
+    void marcarAvaliacoesAlteradasPorEmpresa(UUID empresaId);
+
+    @Query("select f.fotoRostoRef as fotoRostoRef, f.fotoDocumentoRef as fotoDocumentoRef from Funcionario f where f.id = :id")
+    Optional<ReferenciasFotos> findReferenciasFotosById(UUID id);
+
+    @Query("select f.id as id, f.fotoRostoRef as fotoRostoRef, f.fotoDocumentoRef as fotoDocumentoRef from Funcionario f where f.id in :ids")
+    List<ReferenciasFotos> findReferenciasFotosByIdIn(Collection<UUID> ids);
+
+    interface ResultadoBusca {
+        UUID getId();
+        String getNomeCompleto();
+        String getEmail();
+        String getCpf();
+        String getStatus();
+        String getCidade();
+        String getSobre();
+        long getTotalAvaliacoes();
+        long getSomaNotas();
+        long getNotas1();
+        long getNotas2();
+        long getNotas3();
+        long getNotas4();
+        long getNotas5();
+        java.time.LocalDateTime getUltimaAvaliacao();
+    }
+
+    interface ReferenciasFotos {
+        UUID getId();
+        String getFotoRostoRef();
+        String getFotoDocumentoRef();
+    }
 
 }
@@ -1,38 +1,78 @@
 package br.com.indicaAI.API.domain.funcionario;
 
+import br.com.indicaAI.API.domain.autenticacao.AutenticacaoService;
+import br.com.indicaAI.API.domain.empresa.EmpresaRepository;
 import br.com.indicaAI.API.domain.funcionario.dtos.AtualizacaoFuncionarioDTO;
 import br.com.indicaAI.API.domain.funcionario.dtos.CadastroFuncionarioDTO;
 import br.com.indicaAI.API.domain.funcionario.dtos.DetalhamentoFuncionarioDTO;
-import br.com.indicaAI.API.domain.funcionario.mensageria.SolicitacaoValidacaoMQ;
-import br.com.indicaAI.API.infrastructure.rabbitmq.RabbitMQConfig;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import br.com.indicaAI.API.domain.funcionario.foto.FotosFuncionario;
+import br.com.indicaAI.API.domain.funcionario.foto.TipoFoto;
+import br.com.indicaAI.API.domain.reputacao.PosicaoRankingDTO;
+import br.com.indicaAI.API.domain.reputacao.RankingCidades;
+import br.com.indicaAI.API.domain.reputacao.ReputacaoDTO;
+import br.com.indicaAI.API.domain.reputacao.ReputacaoRepository;
+import br.com.indicaAI.API.domain.funcionario.mensageria.SolicitacaoValidacaoPendente;
+import br.com.indicaAI.API.domain.funcionario.mensageria.SolicitacaoValidacaoPendenteRepository;
+import br.com.indicaAI.API.domain.shared.CachePerfis;
+import br.com.indicaAI.API.domain.shared.IdentificadoresCadastrados;
+import br.com.indicaAI.API.domain.shared.IdentificadoresCadastrados.Identificador;
+import br.com.indicaAI.API.infrastructure.security.RevogacaoTokens;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.List;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Service
+@Timed(value = "indicaai.servico", histogram = true)
 public class FuncionarioService {
 
+    // Só dígitos e a pontuação usual de CPF: busca pelo CPF normalizado em vez do nome
+    private static final Pattern TERMO_CPF = Pattern.compile("[0-9.\\-\\s]+");
+    private static final int TAMANHO_MAXIMO_BUSCA = 100;
+
     private final FuncionarioRepository funcionarioRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final SolicitacaoValidacaoPendenteRepository solicitacaoValidacaoRepository;
     private final PasswordEncoder passwordEncoder;
-
-    public FuncionarioService(FuncionarioRepository funcionarioRepository, RabbitTemplate rabbitTemplate,
-            PasswordEncoder passwordEncoder) {
+    private final RevogacaoTokens revogacaoTokens;
+    private final AutenticacaoService autenticacaoService;
+    private final FotosFuncionario fotosFuncionario;
+    private final ReputacaoRepository reputacaoRepository;
+    private final CachePerfis cachePerfis;
+    private final RankingCidades rankingCidades;
+    private final IdentificadoresCadastrados identificadores;
+    private final EmpresaRepository empresaRepository;
+
+    public FuncionarioService(FuncionarioRepository funcionarioRepository, SolicitacaoValidacaoPendenteRepository solicitacaoValidacaoRepository,
+            PasswordEncoder passwordEncoder, RevogacaoTokens revogacaoTokens,
+            AutenticacaoService autenticacaoService, FotosFuncionario fotosFuncionario,
+            ReputacaoRepository reputacaoRepository, CachePerfis cachePerfis, RankingCidades rankingCidades,
+            IdentificadoresCadastrados identificadores, EmpresaRepository empresaRepository) {
         this.funcionarioRepository = funcionarioRepository;
-        this.rabbitTemplate = rabbitTemplate;
+        this.solicitacaoValidacaoRepository = solicitacaoValidacaoRepository;
         this.passwordEncoder = passwordEncoder;
+        this.revogacaoTokens = revogacaoTokens;
+        this.autenticacaoService = autenticacaoService;
+        this.fotosFuncionario = fotosFuncionario;
+        this.reputacaoRepository = reputacaoRepository;
+        this.cachePerfis = cachePerfis;
+        this.rankingCidades = rankingCidades;
+        this.identificadores = identificadores;
+        this.empresaRepository = empresaRepository;
     }
 
     @Transactional
     public DetalhamentoFuncionarioDTO cadastrarFuncionario(CadastroFuncionarioDTO dados) {
-        if (funcionarioRepository.existsByCpf(dados.cpf())) {
+        // Consulta prévia só quando o filtro não descarta; a constraint UNIQUE decide no insert
+        if (identificadores.talvezExista(Identificador.CPF, dados.cpf())
+                && funcionarioRepository.existsByCpf(dados.cpf())) {
             throw new IllegalArgumentException("CPF já cadastrado");
         }
-        if (funcionarioRepository.existsByEmail(dados.email())) {
+        if (identificadores.talvezExista(Identificador.EMAIL_FUNCIONARIO, dados.email())
+                && funcionarioRepository.existsByEmail(dados.email())) {
             throw new IllegalArgumentException("Email já cadastrado");
         }
 
@@ -41,55 +81,80 @@ public class FuncionarioService {
         novo.setCpf(dados.cpf());
         novo.setEmail(dados.email());
         novo.setSenha(passwordEncoder.encode(dados.senha()));
-        novo.setFotoRostoUrl(dados.fotoRostoUrl());
-        novo.setFotoDocumentoUrl(dados.fotoDocumentoUrl());
+        novo.setFotoRostoRef(fotosFuncionario.armazenar(dados.fotoRostoUrl()));
+        novo.setFotoDocumentoRef(fotosFuncionario.armazenar(dados.fotoDocumentoUrl()));
         novo.setCidade(dados.cidade());
         novo.setSobre(dados.sobre());
 
         novo.setStatus(StatusFuncionario.PENDENTE_VALIDACAO);
 
         Funcionario salvo = funcionarioRepository.save(novo);
-        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-            @Override
-            public void afterCommit() {
-                var mensagem = new SolicitacaoValidacaoMQ(
-                        salvo.getId(),
-                        salvo.getFotoRostoUrl(),
-                        salvo.getFotoDocumentoUrl());
-                rabbitTemplate.convertAndSend(RabbitMQConfig.FILA_VALIDACAO_REQUEST, mensagem);
-            }
-        });
+        identificadores.registrar(Identificador.CPF, salvo.getCpf());
+        identificadores.registrar(Identificador.EMAIL_FUNCIONARIO, salvo.getEmail());
+        // Publicada pelo relay depois do commit; o cadastro não depende do broker estar no ar
+        solicitacaoValidacaoRepository.save(new SolicitacaoValidacaoPendente(salvo.getId()));
 
-        return new DetalhamentoFuncionarioDTO(salvo);
+        return new DetalhamentoFuncionarioDTO(salvo, ReputacaoDTO.vazia());
     }
 
     public DetalhamentoFuncionarioDTO detalhar(UUID id) {
-        var funcionario = buscarFuncionarioAtivo(id);
-        return new DetalhamentoFuncionarioDTO(funcionario);
+        return detalharVersionado(id).valor();
+    }
+
+    // Detalhe com a versão da ETag, do cache de perfis; só perfis ativos entram no cache
+    public CachePerfis.Versionado<DetalhamentoFuncionarioDTO> detalharVersionado(UUID id) {
+        return cachePerfis.buscar(CachePerfis.Tipo.FUNCIONARIO, id, () -> {
+            // Versão lida antes do detalhe: uma alteração no meio invalida a entrada no commit
+            var versao = funcionarioRepository.buscarVersaoDetalhe(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Funcionário não encontrado com id: " + id));
+            var funcionario = buscarFuncionarioAtivo(id);
+            return new CachePerfis.Versionado<>(versao, new DetalhamentoFuncionarioDTO(funcionario, buscarReputacao(id)));
+        });
     }
 
     @Transactional
     public DetalhamentoFuncionarioDTO atualizar(UUID id, AtualizacaoFuncionarioDTO dados) {
         var funcionario = buscarFuncionarioAtivo(id);
 
-        if (dados.nomeCompleto() != null)
+        if (dados.email() != null || dados.senha() != null)
+            autenticacaoService.invalidar(funcionario.getEmail(), dados.email());
+
+        if (dados.nomeCompleto() != null) {
             funcionario.setNomeCompleto(dados.nomeCompleto());
+            empresaRepository.marcarAvaliacoesAlteradasPorFuncionario(id);
+        }
         if (dados.senha() != null)
             funcionario.setSenha(passwordEncoder.encode(dados.senha()));
-        if (dados.email() != null)
+        if (dados.email() != null) {
             funcionario.setEmail(dados.email());
+            identificadores.registrar(Identificador.EMAIL_FUNCIONARIO, dados.email());
+        }
         if (dados.cidade() != null)
             funcionario.setCidade(dados.cidade());
         if (dados.sobre() != null)
             funcionario.setSobre(dados.sobre());
+        cachePerfis.invalidar(CachePerfis.Tipo.FUNCIONARIO, id);
+
+        return new DetalhamentoFuncionarioDTO(funcionario, buscarReputacao(id));
+    }
 
-        return new DetalhamentoFuncionarioDTO(funcionario);
+    private ReputacaoDTO buscarReputacao(UUID funcionarioId) {
+        return ReputacaoDTO.de(reputacaoRepository.findById(funcionarioId).orElse(null));
+    }
+
+    public String buscarReferenciaFoto(UUID id, TipoFoto tipo) {
+        var referencias = funcionarioRepository.findReferenciasFotosById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Funcionário não encontrado"));
+        return tipo == TipoFoto.ROSTO ? referencias.getFotoRostoRef() : referencias.getFotoDocumentoRef();
     }
 
     @Transactional
     public void inativar(UUID id) {
         var funcionario = buscarFuncionarioAtivo(id);
         funcionario.setStatus(StatusFuncionario.INATIVO);
+        cachePerfis.invalidar(CachePerfis.Tipo.FUNCIONARIO, id);
+        revogacaoTokens.revogar(id);
+        autenticacaoService.invalidar(funcionario.getEmail());
     }
 
     private Funcionario buscarFuncionarioAtivo(UUID id) {
@@ -103,11 +168,37 @@ public class FuncionarioService {
         return funcionario;
     }
 
-    public java.util.List<DetalhamentoFuncionarioDTO> buscarPorNome(String termo) {
-        var lista = funcionarioRepository.findAllByNomeCompletoContainingIgnoreCaseOrCpfContaining(termo, termo);
-        return lista.stream()
-                .filter(f -> f.getStatus() == StatusFuncionario.ATIVO)
-                .map(DetalhamentoFuncionarioDTO::new)
-                .toList();
+    public List<PosicaoRankingDTO> ranking(String cidade, int pagina, int tamanho) {
+        return rankingCidades.listar(cidade, pagina, tamanho);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DetalhamentoFuncionarioDTO> buscarPorNome(String termo, int pagina, int tamanho) {
+        if (termo == null || termo.isBlank()) {
+            throw new IllegalArgumentException("Informe um termo de busca");
+        }
+        if (pagina < 0 || tamanho < 1 || tamanho > TAMANHO_MAXIMO_BUSCA) {
+            throw new IllegalArgumentException("Paginação inválida: tamanho entre 1 e " + TAMANHO_MAXIMO_BUSCA);
+        }
+
+        var deslocamento = (long) pagina * tamanho;
+        var termoLimpo = termo.trim();
+        List<FuncionarioRepository.ResultadoBusca> resultado;
+
+        if (TERMO_CPF.matcher(termoLimpo).matches() && termoLimpo.chars().anyMatch(Character::isDigit)) {
+            var cpf = termoLimpo.replaceAll("[^0-9]", "");
+            resultado = cpf.length() == 11
+                    ? (pagina == 0 ? funcionarioRepository.buscarAtivoPorCpf(cpf) : List.of())
+                    : funcionarioRepository.buscarAtivosPorPrefixoCpf(cpf, tamanho, deslocamento);
+        } else {
+            resultado = funcionarioRepository.buscarAtivosPorNome(termoLimpo, escaparLike(termoLimpo), tamanho,
+                    deslocamento);
+        }
+
+        return resultado.stream().map(DetalhamentoFuncionarioDTO::new).toList();
+    }
+
+    private static String escaparLike(String termo) {
+        return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 }
\ No newline at end of file
@@ -1,24 +1,41 @@
 package br.com.indicaAI.API.domain.funcionario;
 
+import br.com.indicaAI.API.domain.autenticacao.AutenticacaoService;
 import br.com.indicaAI.API.domain.funcionario.mensageria.ResultadoValidacaoMQ;
+import br.com.indicaAI.API.domain.shared.CachePerfis;
 import br.com.indicaAI.API.domain.shared.EmailService;
 import br.com.indicaAI.API.infrastructure.rabbitmq.RabbitMQConfig;
+import br.com.indicaAI.API.infrastructure.security.RevogacaoTokens;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 @Component
+@ConditionalOnProperty(name = "api.validacao.listener.modo", havingValue = "individual", matchIfMissing = true)
 public class FuncionarioValidacaoListener {
 
     private final FuncionarioRepository funcionarioRepository;
     private final EmailService emailService;
+    private final RevogacaoTokens revogacaoTokens;
+    private final AutenticacaoService autenticacaoService;
+    private final MetricasValidacao metricasValidacao;
+    private final CachePerfis cachePerfis;
+    private final EventosValidacao eventosValidacao;
     private final Logger logger = LoggerFactory.getLogger(FuncionarioValidacaoListener.class);
 
-    public FuncionarioValidacaoListener(FuncionarioRepository funcionarioRepository, EmailService emailService) {
+    public FuncionarioValidacaoListener(FuncionarioRepository funcionarioRepository, EmailService emailService,
+            RevogacaoTokens revogacaoTokens, AutenticacaoService autenticacaoService, MetricasValidacao metricasValidacao,
+            CachePerfis cachePerfis, EventosValidacao eventosValidacao) {
         this.funcionarioRepository = funcionarioRepository;
         this.emailService = emailService;
+        this.revogacaoTokens = revogacaoTokens;
+        this.autenticacaoService = autenticacaoService;
+        this.metricasValidacao = metricasValidacao;
+        this.cachePerfis = cachePerfis;
+        this.eventosValidacao = eventosValidacao;
     }
 
     @RabbitListener(queues = RabbitMQConfig.FILA_VALIDACAO_RESPONSE)
@@ -29,22 +46,32 @@ public class FuncionarioValidacaoListener {
         var funcionario = funcionarioRepository.findById(resultado.funcionarioId())
                 .orElseThrow(() -> new RuntimeException("Funcionario não encontrado para validar id: " + resultado.funcionarioId()));
 
+        metricasValidacao.registrar(funcionario, resultado.aprovado());
+
+        // Entrega é at-least-once (outbox): resposta repetida ou atrasada não mexe em quem já saiu da validação
+        if (funcionario.getStatus() != StatusFuncionario.PENDENTE_VALIDACAO) {
+            logger.info("Resposta da IA ignorada: funcionário {} já está {}", funcionario.getId(), funcionario.getStatus());
+            return;
+        }
+
         if (resultado.aprovado()) {
             funcionario.setStatus(StatusFuncionario.ATIVO);
         } else {
             funcionario.setStatus(StatusFuncionario.REJEITADO);
+            revogacaoTokens.revogar(funcionario.getId());
         }
 
         funcionarioRepository.save(funcionario);
+        // Status faz parte da credencial em cache (uma tentativa de login pendente a teria guardado)
+        autenticacaoService.invalidar(funcionario.getEmail());
+        cachePerfis.invalidar(CachePerfis.Tipo.FUNCIONARIO, funcionario.getId());
+        eventosValidacao.notificar(funcionario.getId(), funcionario.getStatus(), resultado.motivoRejeicao());
 
-        try {
-            if (resultado.aprovado()) {
-                emailService.enviarEmailAprovacao(funcionario.getEmail(), funcionario.getNomeCompleto());
-            } else {
-                emailService.enviarEmailRejeicao(funcionario.getEmail(), funcionario.getNomeCompleto(), resultado.motivoRejeicao());
-            }
-        } catch (Exception e) {
-            logger.error("Falha ao enviar e-mail para o funcionário ID: {}. Erro: {}", funcionario.getId(), e.getMessage());
+        // Vai para o outbox na mesma transação: o envio SMTP acontece depois do commit, com novas tentativas
+        if (resultado.aprovado()) {
+            emailService.enviarEmailAprovacao(funcionario.getEmail(), funcionario.getNomeCompleto());
+        } else {
+            emailService.enviarEmailRejeicao(funcionario.getEmail(), funcionario.getNomeCompleto(), resultado.motivoRejeicao());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package br.com.indicaAI.API.domain.funcionario;
+
+import br.com.indicaAI.API.domain.autenticacao.AutenticacaoService;
+import br.com.indicaAI.API.domain.funcionario.mensageria.ResultadoValidacaoMQ;
+import br.com.indicaAI.API.domain.shared.CachePerfis;
+import br.com.indicaAI.API.domain.shared.EmailService;
+import br.com.indicaAI.API.infrastructure.rabbitmq.RabbitMQConfig;
+import br.com.indicaAI.API.infrastructure.security.RevogacaoTokens;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Modo em lote do {@link FuncionarioValidacaoListener}: recebe até
+ * api.validacao.listener.tamanho-lote respostas de uma vez, carrega os funcionários com um
+ * único IN, atualiza os status num batch JDBC e confirma tudo numa transação. O container só
+ * dá ack no lote depois que o método retorna, ou seja, depois do commit.
+ */
+@Component
+@ConditionalOnProperty(name = "api.validacao.listener.modo", havingValue = "lote")
+public class FuncionarioValidacaoListenerLote {
+
+    // Só sai de PENDENTE_VALIDACAO: resposta repetida (outbox at-least-once) ou atrasada não altera nada
+    private static final String SQL_ATUALIZAR_STATUS = """
+            UPDATE funcionarios SET status = ?, versao = versao + 1
+             WHERE id = ? AND status = 'PENDENTE_VALIDACAO'
+            """;
+
+    private final FuncionarioRepository funcionarioRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EmailService emailService;
+    private final RevogacaoTokens revogacaoTokens;
+    private final AutenticacaoService autenticacaoService;
+    private final MetricasValidacao metricasValidacao;
+    private final CachePerfis cachePerfis;
+    private final EventosValidacao eventosValidacao;
+    private final Logger logger = LoggerFactory.getLogger(FuncionarioValidacaoListenerLote.class);
+
+    public FuncionarioValidacaoListenerLote(FuncionarioRepository funcionarioRepository, JdbcTemplate jdbcTemplate,
+            EmailService emailService, RevogacaoTokens revogacaoTokens, AutenticacaoService autenticacaoService,
+            MetricasValidacao metricasValidacao, CachePerfis cachePerfis, EventosValidacao eventosValidacao) {
+        this.funcionarioRepository = funcionarioRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.emailService = emailService;
+        this.revogacaoTokens = revogacaoTokens;
+        this.autenticacaoService = autenticacaoService;
+        this.metricasValidacao = metricasValidacao;
+        this.cachePerfis = cachePerfis;
+        this.eventosValidacao = eventosValidacao;
+    }
+
+    @RabbitListener(queues = RabbitMQConfig.FILA_VALIDACAO_RESPONSE, containerFactory = RabbitMQConfig.CONTAINER_VALIDACAO_LOTE)
+    @Transactional
+    public void processarRespostasDaIA(List<ResultadoValidacaoMQ> resultados) {
+        // Respostas repetidas para o mesmo funcionário: vale a última do lote
+        Map<UUID, ResultadoValidacaoMQ> porFuncionario = new LinkedHashMap<>();
+        resultados.forEach(resultado -> porFuncionario.put(resultado.funcionarioId(), resultado));
+        logger.info("Recebi {} respostas da IA ({} funcionários)", resultados.size(), porFuncionario.size());
+
+        var funcionarios = funcionarioRepository.findAllById(porFuncionario.keySet());
+        if (funcionarios.size() < porFuncionario.size()) {
+            // Um id desconhecido não pode segurar o lote inteiro na fila
+            logger.warn("{} respostas da IA para funcionários inexistentes foram descartadas",
+                    porFuncionario.size() - funcionarios.size());
+        }
+
+        Map<Funcionario, Boolean> aprovacoes = new HashMap<>();
+        List<Object[]> atualizacoes = new ArrayList<>(funcionarios.size());
+        for (Funcionario funcionario : funcionarios) {
+            var resultado = porFuncionario.get(funcionario.getId());
+            aprovacoes.put(funcionario, resultado.aprovado());
+            var status = resultado.aprovado() ? StatusFuncionario.ATIVO : StatusFuncionario.REJEITADO;
+            atualizacoes.add(new Object[]{status.name(), funcionario.getId()});
+        }
+        // As entidades carregadas ainda têm o status anterior ao batch
+        metricasValidacao.registrar(aprovacoes);
+        var linhas = jdbcTemplate.batchUpdate(SQL_ATUALIZAR_STATUS, atualizacoes);
+
+        // E-mail, revogação e eventos só para quem de fato mudou de status neste lote
+        List<Funcionario> alterados = new ArrayList<>(funcionarios.size());
+        for (int i = 0; i < funcionarios.size(); i++) {
+            if (linhas[i] > 0) {
+                alterados.add(funcionarios.get(i));
+            }
+        }
+        if (alterados.size() < funcionarios.size()) {
+            logger.info("{} respostas da IA ignoradas: funcionários que já não estavam pendentes",
+                    funcionarios.size() - alterados.size());
+        }
+        if (alterados.isEmpty()) {
+            return;
+        }
+
+        for (Funcionario funcionario : alterados) {
+            var resultado = porFuncionario.get(funcionario.getId());
+            // Vai para o outbox na mesma transação do lote
+            if (resultado.aprovado()) {
+                emailService.enviarEmailAprovacao(funcionario.getEmail(), funcionario.getNomeCompleto());
+            } else {
+                revogacaoTokens.revogar(funcionario.getId());
+                emailService.enviarEmailRejeicao(funcionario.getEmail(), funcionario.getNomeCompleto(), resultado.motivoRejeicao());
+            }
+            eventosValidacao.notificar(funcionario.getId(),
+                    resultado.aprovado() ? StatusFuncionario.ATIVO : StatusFuncionario.REJEITADO,
+                    resultado.motivoRejeicao());
+        }
+        // Status faz parte da credencial em cache
+        autenticacaoService.invalidar(alterados.stream().map(Funcionario::getEmail).toArray(String[]::new));
+        cachePerfis.invalidar(CachePerfis.Tipo.FUNCIONARIO, alterados.stream().map(Funcionario::getId).toList());
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.indicaAI.API.domain.funcionario;
+
+import br.com.indicaAI.API.domain.funcionario.mensageria.SolicitacaoValidacaoPendenteRepository;
+import br.com.indicaAI.API.domain.funcionario.mensageria.SolicitacaoValidacaoPendenteRepository.UltimoEnvio;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Métricas das respostas da validação: aprovações/rejeições, tempo que o funcionário ficou em
+ * PENDENTE_VALIDACAO e ida e volta pelo RabbitMQ (publicação do outbox até a resposta).
+ */
+@Component
+public class MetricasValidacao {
+
+    private final SolicitacaoValidacaoPendenteRepository solicitacaoRepository;
+    private final Counter aprovados;
+    private final Counter rejeitados;
+    private final Timer tempoPendente;
+    private final Timer idaVolta;
+
+    public MetricasValidacao(SolicitacaoValidacaoPendenteRepository solicitacaoRepository, MeterRegistry meterRegistry) {
+        this.solicitacaoRepository = solicitacaoRepository;
+        this.aprovados = Counter.builder("indicaai.validacao.resultados").tag("resultado", "aprovado").register(meterRegistry);
+        this.rejeitados = Counter.builder("indicaai.validacao.resultados").tag("resultado", "rejeitado").register(meterRegistry);
+        this.tempoPendente = Timer.builder("indicaai.validacao.tempo.pendente")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofDays(2))
+                .register(meterRegistry);
+        this.idaVolta = Timer.builder("indicaai.validacao.ida.volta")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofHours(1))
+                .register(meterRegistry);
+    }
+
+    public void registrar(Funcionario funcionario, boolean aprovado) {
+        registrar(Map.of(funcionario, aprovado));
+    }
+
+    /**
+     * Deve ser chamado antes de o status mudar na entidade: os tempos só contam para quem
+     * ainda estava pendente, e respostas repetidas não inflam o histograma.
+     */
+    public void registrar(Map<Funcionario, Boolean> resultados) {
+        var pendentes = resultados.keySet().stream()
+                .filter(funcionario -> funcionario.getStatus() == StatusFuncionario.PENDENTE_VALIDACAO)
+                .map(Funcionario::getId)
+                .toList();
+        Map<UUID, LocalDateTime> envios = pendentes.isEmpty() ? Map.of()
+                : solicitacaoRepository.buscarUltimosEnvios(pendentes).stream()
+                        .collect(Collectors.toMap(UltimoEnvio::getFuncionarioId, UltimoEnvio::getEnviadoEm));
+
+        var agora = LocalDateTime.now();
+        resultados.forEach((funcionario, aprovado) -> {
+            (aprovado ? aprovados : rejeitados).increment();
+            if (funcionario.getStatus() != StatusFuncionario.PENDENTE_VALIDACAO) {
+                return;
+            }
+            tempoPendente.record(Duration.between(funcionario.getDataCadastro(), agora));
+            var enviadoEm = envios.get(funcionario.getId());
+            if (enviadoEm != null) {
+                idaVolta.record(Duration.between(enviadoEm, agora));
+            }
+        });
+    }
+}
@@ -1,7 +1,9 @@
 package br.com.indicaAI.API.domain.funcionario.dtos;
 
 import br.com.indicaAI.API.domain.funcionario.Funcionario;
+import br.com.indicaAI.API.domain.funcionario.FuncionarioRepository;
 import br.com.indicaAI.API.domain.funcionario.StatusFuncionario;
+import br.com.indicaAI.API.domain.reputacao.ReputacaoDTO;
 import java.util.UUID;
 
 public record DetalhamentoFuncionarioDTO(
@@ -11,9 +13,10 @@ public record DetalhamentoFuncionarioDTO(
         String cpf,
         StatusFuncionario status,
         String cidade,
-        String sobre
+        String sobre,
+        ReputacaoDTO reputacao
 ) {
-    public DetalhamentoFuncionarioDTO(Funcionario funcionario) {
+    public DetalhamentoFuncionarioDTO(Funcionario funcionario, ReputacaoDTO reputacao) {
         this(
                 funcionario.getId(),
                 funcionario.getNomeCompleto(),
@@ -21,7 +24,23 @@ public record DetalhamentoFuncionarioDTO(
                 funcionario.getCpf(),
                 funcionario.getStatus(),
                 funcionario.getCidade(),
-                funcionario.getSobre()
+                funcionario.getSobre(),
+                reputacao
+        );
+    }
+
+    public DetalhamentoFuncionarioDTO(FuncionarioRepository.ResultadoBusca resultado) {
+        this(
+                resultado.getId(),
+                resultado.getNomeCompleto(),
+                resultado.getEmail(),
+                resultado.getCpf(),
+                StatusFuncionario.valueOf(resultado.getStatus()),
+                resultado.getCidade(),
+                resultado.getSobre(),
+                ReputacaoDTO.de(resultado.getTotalAvaliacoes(), resultado.getSomaNotas(), resultado.getNotas1(),
+                        resultado.getNotas2(), resultado.getNotas3(), resultado.getNotas4(), resultado.getNotas5(),
+                        resultado.getUltimaAvaliacao())
         );
     }
 }
\ No newline at end of file
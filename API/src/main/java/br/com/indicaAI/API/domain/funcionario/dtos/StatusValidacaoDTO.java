@@ -0,0 +1,13 @@
+package br.com.indicaAI.API.domain.funcionario.dtos;
+
+import br.com.indicaAI.API.domain.funcionario.StatusFuncionario;
+
+import java.util.UUID;
+
+// motivoRejeicao só vem no evento da transição; não é gravado no cadastro
+public record StatusValidacaoDTO(
+        UUID funcionarioId,
+        StatusFuncionario status,
+        String motivoRejeicao
+) {
+}
@@ -0,0 +1,78 @@
+package br.com.indicaAI.API.domain.funcionario.foto;
+
+import br.com.indicaAI.API.domain.shared.ArmazenamentoFotos;
+import br.com.indicaAI.API.domain.shared.FotoArmazenada;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Converte as fotos recebidas no cadastro (data-URI ou base64 puro) em referências curtas
+ * guardadas no funcionário. URLs http(s) externas são mantidas como estão.
+ */
+@Component
+public class FotosFuncionario {
+
+    private static final String PREFIXO_ARMAZENADA = "sha256:";
+
+    private final ArmazenamentoFotos armazenamento;
+
+    public FotosFuncionario(ArmazenamentoFotos armazenamento) {
+        this.armazenamento = armazenamento;
+    }
+
+    public String armazenar(String foto) {
+        if (foto == null || foto.isBlank()) {
+            return null;
+        }
+        if (isUrlExterna(foto)) {
+            return foto;
+        }
+
+        var base64 = foto.startsWith("data:") ? foto.substring(foto.indexOf(',') + 1) : foto;
+        byte[] conteudo;
+        try {
+            conteudo = Base64.getMimeDecoder().decode(base64);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Foto em formato inválido");
+        }
+        if (conteudo.length == 0) {
+            throw new IllegalArgumentException("Foto em formato inválido");
+        }
+
+        return PREFIXO_ARMAZENADA + armazenamento.salvar(conteudo);
+    }
+
+    public Optional<FotoArmazenada> buscar(String referencia) {
+        if (referencia == null || !referencia.startsWith(PREFIXO_ARMAZENADA)) {
+            return Optional.empty();
+        }
+        return armazenamento.buscar(referencia.substring(PREFIXO_ARMAZENADA.length()));
+    }
+
+    public void transferir(FotoArmazenada foto, OutputStream destino) throws IOException {
+        armazenamento.transferir(foto, destino);
+    }
+
+    /**
+     * Conteúdo enviado ao validador: URLs externas seguem como estão e fotos armazenadas
+     * voltam como data-URI, no mesmo formato aceito pelo cadastro.
+     */
+    public String paraDataUri(String referencia) throws IOException {
+        if (referencia == null || isUrlExterna(referencia)) {
+            return referencia;
+        }
+        var foto = buscar(referencia).orElseThrow(() -> new IOException("Foto não encontrada: " + referencia));
+        var conteudo = new ByteArrayOutputStream((int) foto.tamanho());
+        armazenamento.transferir(foto, conteudo);
+        return "data:" + foto.tipoConteudo() + ";base64," + Base64.getEncoder().encodeToString(conteudo.toByteArray());
+    }
+
+    public static boolean isUrlExterna(String referencia) {
+        return referencia != null && (referencia.startsWith("http://") || referencia.startsWith("https://"));
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.indicaAI.API.domain.funcionario.foto;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Move as fotos base64 que ainda estão nas colunas TEXT de funcionarios para o
+ * armazenamento de fotos, em lotes. Pode rodar em vários nós ao mesmo tempo (SKIP LOCKED).
+ * Roda a cada subida: sem fotos antigas, é uma consulta num índice parcial vazio.
+ */
+@Component
+@ConditionalOnProperty(name = "api.fotos.migracao.habilitada", havingValue = "true", matchIfMissing = true)
+public class MigracaoFotosFuncionarios {
+
+    private static final String SQL_LOTE = """
+            SELECT id, foto_rosto_url, foto_documento_url
+              FROM funcionarios
+             WHERE id > ? AND (foto_rosto_url IS NOT NULL OR foto_documento_url IS NOT NULL)
+             ORDER BY id
+             LIMIT ?
+               FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String SQL_ATUALIZAR = """
+            UPDATE funcionarios
+               SET foto_rosto_ref = COALESCE(foto_rosto_ref, ?),
+                   foto_documento_ref = COALESCE(foto_documento_ref, ?),
+                   foto_rosto_url = NULL,
+                   foto_documento_url = NULL,
+                   versao = versao + 1
+             WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FotosFuncionario fotosFuncionario;
+    private final TaskExecutor executor;
+    private final int tamanhoLote;
+    private final Logger logger = LoggerFactory.getLogger(MigracaoFotosFuncionarios.class);
+
+    public MigracaoFotosFuncionarios(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            FotosFuncionario fotosFuncionario, @Qualifier("applicationTaskExecutor") TaskExecutor executor,
+            @Value("${api.fotos.migracao.tamanho-lote:100}") int tamanhoLote) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.fotosFuncionario = fotosFuncionario;
+        this.executor = executor;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        executor.execute(this::migrar);
+    }
+
+    public void migrar() {
+        var ultimoId = new UUID(0L, 0L);
+        long migrados = 0;
+
+        while (true) {
+            var inicioLote = ultimoId;
+            var processados = transactionTemplate.execute(status -> migrarLote(inicioLote));
+            if (processados == null || processados.isEmpty()) {
+                break;
+            }
+            migrados += processados.size();
+            ultimoId = processados.get(processados.size() - 1);
+        }
+
+        logger.info("Migração de fotos concluída: {} funcionário(s) processado(s)", migrados);
+    }
+
+    private List<UUID> migrarLote(UUID aposId) {
+        var ids = new ArrayList<UUID>();
+        var parametros = new ArrayList<Object[]>();
+
+        jdbcTemplate.query(SQL_LOTE, rs -> {
+            var id = rs.getObject("id", UUID.class);
+            ids.add(id);
+            try {
+                parametros.add(new Object[]{
+                        fotosFuncionario.armazenar(rs.getString("foto_rosto_url")),
+                        fotosFuncionario.armazenar(rs.getString("foto_documento_url")),
+                        id});
+            } catch (IllegalArgumentException e) {
+                // Mantém a linha como está; o cursor por id segue adiante sem travar o job
+                logger.warn("Foto inválida no funcionário {}, ignorando: {}", id, e.getMessage());
+            }
+        }, aposId, tamanhoLote);
+
+        if (!parametros.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_ATUALIZAR, parametros);
+        }
+        return ids;
+    }
+}
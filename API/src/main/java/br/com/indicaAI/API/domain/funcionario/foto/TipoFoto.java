@@ -0,0 +1,14 @@
+package br.com.indicaAI.API.domain.funcionario.foto;
+
+public enum TipoFoto {
+    ROSTO,
+    DOCUMENTO;
+
+    public static TipoFoto doCaminho(String valor) {
+        try {
+            return valueOf(valor.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Tipo de foto inválido: " + valor);
+        }
+    }
+}
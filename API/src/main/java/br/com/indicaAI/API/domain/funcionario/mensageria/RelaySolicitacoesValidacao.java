@@ -0,0 +1,167 @@
+package br.com.indicaAI.API.domain.funcionario.mensageria;
+
+import br.com.indicaAI.API.domain.funcionario.FuncionarioRepository;
+import br.com.indicaAI.API.domain.funcionario.FuncionarioRepository.ReferenciasFotos;
+import br.com.indicaAI.API.domain.funcionario.foto.FotosFuncionario;
+import br.com.indicaAI.API.infrastructure.rabbitmq.RabbitMQConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Publica o outbox de validação no RabbitMQ. O lote é reservado numa transação curta
+ * (FOR UPDATE SKIP LOCKED + adiamento da próxima tentativa), publicado num único canal com
+ * publisher confirms e só então marcado como enviado. Entrega é pelo menos uma vez: se o nó
+ * cair entre o confirm e a marcação, a solicitação é publicada de novo depois da reserva.
+ */
+@Component
+public class RelaySolicitacoesValidacao {
+
+    private final SolicitacaoValidacaoPendenteRepository pendenteRepository;
+    private final FuncionarioRepository funcionarioRepository;
+    private final FotosFuncionario fotosFuncionario;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final Duration esperaConfirmacao;
+    private final Duration esperaInicial;
+    private final Duration esperaMaxima;
+    private final Duration reserva;
+    private final Counter publicadas;
+    private final Counter reagendadas;
+    private final Logger logger = LoggerFactory.getLogger(RelaySolicitacoesValidacao.class);
+
+    public RelaySolicitacoesValidacao(SolicitacaoValidacaoPendenteRepository pendenteRepository,
+            FuncionarioRepository funcionarioRepository, FotosFuncionario fotosFuncionario,
+            RabbitTemplate rabbitTemplate, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+            @Value("${api.validacao.outbox.tamanho-lote:100}") int tamanhoLote,
+            @Value("${api.validacao.outbox.espera-confirmacao:10s}") Duration esperaConfirmacao,
+            @Value("${api.validacao.outbox.espera-inicial:5s}") Duration esperaInicial,
+            @Value("${api.validacao.outbox.espera-maxima:5m}") Duration esperaMaxima,
+            @Value("${api.validacao.outbox.reserva:2m}") Duration reserva) {
+        this.pendenteRepository = pendenteRepository;
+        this.funcionarioRepository = funcionarioRepository;
+        this.fotosFuncionario = fotosFuncionario;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoLote = tamanhoLote;
+        this.esperaConfirmacao = esperaConfirmacao;
+        this.esperaInicial = esperaInicial;
+        this.esperaMaxima = esperaMaxima;
+        this.reserva = reserva;
+        this.publicadas = Counter.builder("indicaai.validacao.outbox").tag("resultado", "publicada").register(meterRegistry);
+        this.reagendadas = Counter.builder("indicaai.validacao.outbox").tag("resultado", "reagendada").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${api.validacao.outbox.intervalo:1s}")
+    public void publicar() {
+        int processadas;
+        do {
+            processadas = publicarLote();
+        } while (processadas == tamanhoLote);
+    }
+
+    private int publicarLote() {
+        List<SolicitacaoValidacaoPendente> lote = transactionTemplate.execute(status -> {
+            var reservadas = pendenteRepository.bloquearProntasParaEnvio(tamanhoLote);
+            // Se o nó cair no meio da publicação, as linhas voltam a ficar disponíveis depois da reserva
+            var liberacao = LocalDateTime.now().plus(reserva);
+            reservadas.forEach(solicitacao -> solicitacao.setProximaTentativa(liberacao));
+            return reservadas;
+        });
+        if (lote == null || lote.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, String> falhas = new HashMap<>();
+        var referencias = buscarReferencias(lote);
+        var enviadas = new ArrayList<UUID>();
+        try {
+            rabbitTemplate.invoke(operacoes -> {
+                // Uma mensagem montada por vez: as fotos do lote inteiro em data-URI não ficam juntas na memória
+                for (SolicitacaoValidacaoPendente solicitacao : lote) {
+                    var mensagem = montarMensagem(solicitacao, referencias.get(solicitacao.getFuncionarioId()), falhas);
+                    if (mensagem != null) {
+                        operacoes.convertAndSend(RabbitMQConfig.FILA_VALIDACAO_REQUEST, mensagem);
+                        enviadas.add(solicitacao.getId());
+                    }
+                }
+                if (!enviadas.isEmpty()) {
+                    operacoes.waitForConfirmsOrDie(esperaConfirmacao.toMillis());
+                }
+                return null;
+            });
+        } catch (AmqpException e) {
+            // Sem confirmação não dá para saber quais chegaram: o lote inteiro volta para a fila
+            var erro = mensagemErro(e);
+            lote.forEach(solicitacao -> falhas.putIfAbsent(solicitacao.getId(), erro));
+            logger.warn("Falha ao publicar {} solicitações de validação: {}", lote.size(), e.getMessage());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            var ids = lote.stream().map(SolicitacaoValidacaoPendente::getId).toList();
+            for (SolicitacaoValidacaoPendente solicitacao : pendenteRepository.findAllById(ids)) {
+                String erro = falhas.get(solicitacao.getId());
+                if (erro == null) {
+                    solicitacao.marcarEnviada();
+                    publicadas.increment();
+                } else {
+                    solicitacao.registrarFalha(erro, esperaInicial, esperaMaxima);
+                    reagendadas.increment();
+                }
+            }
+        });
+        return lote.size();
+    }
+
+    private Map<UUID, ReferenciasFotos> buscarReferencias(List<SolicitacaoValidacaoPendente> lote) {
+        return funcionarioRepository.findReferenciasFotosByIdIn(
+                        lote.stream().map(SolicitacaoValidacaoPendente::getFuncionarioId).toList())
+                .stream()
+                .collect(Collectors.toMap(ReferenciasFotos::getId, Function.identity()));
+    }
+
+    // null: a solicitação falhou sozinha (registrada em falhas) e o resto do lote segue
+    private SolicitacaoValidacaoMQ montarMensagem(SolicitacaoValidacaoPendente solicitacao, ReferenciasFotos fotos,
+            Map<UUID, String> falhas) {
+        if (fotos == null) {
+            falhas.put(solicitacao.getId(), "Funcionário não encontrado");
+            logger.warn("Solicitação de validação {} aponta para o funcionário {}, que não existe mais",
+                    solicitacao.getId(), solicitacao.getFuncionarioId());
+            return null;
+        }
+        try {
+            return new SolicitacaoValidacaoMQ(
+                    solicitacao.getFuncionarioId(),
+                    fotosFuncionario.paraDataUri(fotos.getFotoRostoRef()),
+                    fotosFuncionario.paraDataUri(fotos.getFotoDocumentoRef()));
+        } catch (IOException e) {
+            falhas.put(solicitacao.getId(), mensagemErro(e));
+            logger.warn("Não foi possível ler as fotos do funcionário {}: {}", solicitacao.getFuncionarioId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String mensagemErro(Exception e) {
+        return Objects.requireNonNullElse(e.getMessage(), e.getClass().getName());
+    }
+}
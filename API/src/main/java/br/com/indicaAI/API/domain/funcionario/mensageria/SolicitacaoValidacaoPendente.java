@@ -0,0 +1,60 @@
+package br.com.indicaAI.API.domain.funcionario.mensageria;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Linha do outbox de validação: gravada junto com o funcionário e publicada depois pelo
+ * {@link RelaySolicitacoesValidacao}.
+ */
+@Entity
+@Table(name = "validacao_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class SolicitacaoValidacaoPendente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID funcionarioId;
+
+    private int tentativas;
+
+    @Column(nullable = false)
+    private LocalDateTime proximaTentativa;
+
+    @Column(columnDefinition = "TEXT")
+    private String ultimoErro;
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm;
+
+    private LocalDateTime enviadoEm;
+
+    public SolicitacaoValidacaoPendente(UUID funcionarioId) {
+        this.funcionarioId = funcionarioId;
+        this.criadoEm = LocalDateTime.now();
+        this.proximaTentativa = this.criadoEm;
+    }
+
+    public void marcarEnviada() {
+        this.enviadoEm = LocalDateTime.now();
+        this.ultimoErro = null;
+    }
+
+    // Sem limite de tentativas: o funcionário ficaria PENDENTE_VALIDACAO para sempre
+    public void registrarFalha(String erro, Duration esperaInicial, Duration esperaMaxima) {
+        this.tentativas++;
+        this.ultimoErro = erro;
+        var espera = esperaInicial.multipliedBy(1L << Math.min(tentativas - 1, 20));
+        this.proximaTentativa = LocalDateTime.now().plus(espera.compareTo(esperaMaxima) > 0 ? esperaMaxima : espera);
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.indicaAI.API.domain.funcionario.mensageria;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface SolicitacaoValidacaoPendenteRepository extends JpaRepository<SolicitacaoValidacaoPendente, UUID> {
+
+    // SKIP LOCKED: vários nós publicam o outbox sem pegar as mesmas linhas
+    @Query(nativeQuery = true, value = """
+            SELECT * FROM validacao_outbox
+             WHERE enviado_em IS NULL AND proxima_tentativa <= now()
+             ORDER BY proxima_tentativa
+             LIMIT :limite
+               FOR UPDATE SKIP LOCKED
+            """)
+    List<SolicitacaoValidacaoPendente> bloquearProntasParaEnvio(int limite);
+
+    @Query("""
+            select s.funcionarioId as funcionarioId, max(s.enviadoEm) as enviadoEm
+              from SolicitacaoValidacaoPendente s
+             where s.funcionarioId in :funcionarioIds and s.enviadoEm is not null
+             group by s.funcionarioId
+            """)
+    List<UltimoEnvio> buscarUltimosEnvios(Collection<UUID> funcionarioIds);
+
+    interface UltimoEnvio {
+        UUID getFuncionarioId();
+        LocalDateTime getEnviadoEm();
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.indicaAI.API.domain.reputacao;
+
+import java.util.UUID;
+
+/**
+ * Uma linha do ranking da cidade. "pontuacao" é a média bayesiana com decaimento no tempo usada
+ * na ordenação; "media" é a média simples das notas, só para exibição.
+ */
+public record PosicaoRankingDTO(
+        int posicao,
+        UUID funcionarioId,
+        String nomeCompleto,
+        String cidade,
+        double pontuacao,
+        double media,
+        long totalAvaliacoes
+) {
+}
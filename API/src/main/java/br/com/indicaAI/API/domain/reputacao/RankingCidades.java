@@ -0,0 +1,407 @@
+package br.com.indicaAI.API.domain.reputacao;
+
+import br.com.indicaAI.API.domain.funcionario.StatusFuncionario;
+import br.com.indicaAI.API.domain.shared.CachePerfis;
+import br.com.indicaAI.API.infrastructure.rabbitmq.RabbitMQConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ranking em memória dos funcionários ativos por cidade, ordenado pela média bayesiana das notas
+ * com peso exp(-λ·idade) (meia-vida em api.ranking.meia-vida) e prior na média geral do ranking.
+ *
+ * <p>As somas ponderadas ficam relativas a um instante de referência (as recargas já leem o banco
+ * nela) e o redecaimento periódico traz tudo para "agora" sem ir ao banco. Montado na subida a
+ * partir de uma leitura em streaming; depois, cada funcionário é relido do banco após o commit de
+ * uma avaliação e quando chega uma invalidação de perfil de funcionário (cidade, nome, status,
+ * importação), inclusive de outros nós pelo fanout. Escritas passam pela trava, que nunca fica
+ * presa enquanto se pega conexão ou se consulta o banco; leituras percorrem o ConcurrentSkipListSet
+ * da cidade sem trava.
+ */
+@Component
+public class RankingCidades {
+
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+    private static final double MEDIA_PRIOR_PADRAO = 3.0;
+
+    // exp limitado a -700: abaixo disso o float8 do Postgres dá erro de underflow em vez de zero
+    private static final String PESO = "exp(GREATEST(-700, -? * EXTRACT(EPOCH FROM (? - a.data_avaliacao))::float8))";
+
+    private static final String SQL_AGREGADOS = """
+            SELECT f.id, f.nome_completo, f.cidade, f.status,
+                   COUNT(a.id) AS total, COALESCE(SUM(a.nota), 0) AS soma_notas,
+                   COALESCE(SUM(a.nota * %1$s), 0) AS soma_ponderada,
+                   COALESCE(SUM(%1$s), 0) AS peso
+              FROM funcionarios f
+              %2$s JOIN avaliacoes a ON a.funcionario_id = f.id AND a.status = 'PUBLICADA' AND a.nota IS NOT NULL
+             WHERE %3$s
+             GROUP BY f.id
+            """;
+
+    private static final String SQL_CONSTRUIR = SQL_AGREGADOS.formatted(PESO, "",
+            "f.status = 'ATIVO' AND btrim(f.cidade) <> ''");
+
+    // LEFT JOIN: quem saiu do ranking (inativo, sem cidade) também volta na consulta
+    private static final String SQL_RECARREGAR = SQL_AGREGADOS.formatted(PESO, "LEFT", "f.id = ANY(?)");
+
+    private record Posicao(UUID id, String nome, String cidade, double pontuacao, double media, long total) {
+    }
+
+    private static final Comparator<Posicao> ORDEM = Comparator.comparingDouble(Posicao::pontuacao).reversed()
+            .thenComparing(Posicao::id);
+
+    private static final class Agregado {
+        private String nome;
+        private String cidade;
+        private double somaPonderada;
+        private double peso;
+        private long total;
+        private long somaNotas;
+        private Posicao posicao;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacaoLeitura;
+    private final TaskExecutor executor;
+    private final double lambda;
+    private final double pesoPrior;
+    private final Logger logger = LoggerFactory.getLogger(RankingCidades.class);
+
+    private final ReentrantLock trava = new ReentrantLock();
+    // Guardados pela trava
+    private Map<UUID, Agregado> agregados = new HashMap<>();
+    private LocalDateTime referencia = LocalDateTime.now();
+    private double mediaPrior = MEDIA_PRIOR_PADRAO;
+    private Set<UUID> tocadosDuranteConstrucao;
+    private long ultimoCarimbo;
+    // Carimbo da recarga aplicada por último em cada funcionário (inclusive os que saíram do ranking)
+    private final Map<UUID, Long> carimbosAplicados = new HashMap<>();
+    // Só as leituras do ranking passam por aqui sem a trava
+    private volatile Map<String, NavigableSet<Posicao>> cidades = new ConcurrentHashMap<>();
+
+    public RankingCidades(DataSource dataSource, PlatformTransactionManager transactionManager,
+            @Qualifier("applicationTaskExecutor") TaskExecutor executor,
+            @Value("${api.ranking.meia-vida:180d}") Duration meiaVida,
+            @Value("${api.ranking.peso-prior:5}") double pesoPrior,
+            @Value("${api.ranking.fetch-size:1000}") int fetchSize) {
+        // JdbcTemplate próprio: o fetch size faz o driver trazer a leitura inicial em partes
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.executor = executor;
+        this.lambda = Math.log(2) / meiaVida.toSeconds();
+        this.pesoPrior = pesoPrior;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        executor.execute(this::construir);
+    }
+
+    public List<PosicaoRankingDTO> listar(String cidade, int pagina, int tamanho) {
+        if (cidade == null || cidade.isBlank()) {
+            throw new IllegalArgumentException("Informe a cidade");
+        }
+        if (pagina < 0 || tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("Paginação inválida: tamanho entre 1 e " + TAMANHO_MAXIMO_PAGINA);
+        }
+
+        var posicoes = cidades.get(chaveCidade(cidade));
+        if (posicoes == null) {
+            return List.of();
+        }
+        var inicio = (long) pagina * tamanho;
+        var resultado = new ArrayList<PosicaoRankingDTO>(tamanho);
+        var numero = 0L;
+        for (var posicao : posicoes) {
+            if (numero++ < inicio) {
+                continue;
+            }
+            resultado.add(new PosicaoRankingDTO((int) numero, posicao.id(), posicao.nome(), posicao.cidade(),
+                    arredondar(posicao.pontuacao()), arredondar(posicao.media()), posicao.total()));
+            if (resultado.size() == tamanho) {
+                break;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Relê o funcionário avaliado depois do commit de AvaliacaoService.avaliar. Reler em vez de
+     * somar em memória conta a avaliação uma vez só, mesmo que outra recarga do mesmo funcionário
+     * já a tenha lido entre o commit e este callback.
+     */
+    public void registrarAvaliacao(UUID funcionarioId) {
+        Runnable reler = () -> recarregar(List.of(funcionarioId));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reler.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reler.run();
+            }
+        });
+    }
+
+    // Mesmo fanout do cache de perfis, numa fila própria deste nó; a própria publicação volta para cá
+    @RabbitListener(queues = "#{" + RabbitMQConfig.FILA_RANKING_FUNCIONARIOS + ".name}")
+    public void receber(CachePerfis.Invalidacao invalidacao) {
+        if (invalidacao.tipo() != CachePerfis.Tipo.FUNCIONARIO) {
+            return;
+        }
+        if (invalidacao.ids().isEmpty()) {
+            construir();
+        } else {
+            recarregar(invalidacao.ids());
+        }
+    }
+
+    /**
+     * Relê do banco os funcionários informados e corrige suas posições (ou os tira do ranking).
+     * A consulta roda fora da trava: quem chama pode estar no afterCommit segurando conexão, e
+     * esperar a trava enquanto outra recarga espera o pool travaria os dois.
+     *
+     * <p>O carimbo é tirado antes da consulta e toda chamada vem depois do commit que a motivou,
+     * então a leitura com carimbo c enxerga todos os commits das chamadas com carimbo até c. Por
+     * isso uma leitura só é aplicada se nenhuma de carimbo maior já foi: uma mais lenta e mais velha
+     * não desfaz a mais nova, e o que ela tinha de mais recente chega na recarga do próprio commit.
+     */
+    public void recarregar(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        long carimbo;
+        LocalDateTime referenciaLeitura;
+        trava.lock();
+        try {
+            if (tocadosDuranteConstrucao != null) {
+                tocadosDuranteConstrucao.addAll(ids);
+            }
+            carimbo = ++ultimoCarimbo;
+            referenciaLeitura = referencia;
+        } finally {
+            trava.unlock();
+        }
+
+        var array = ids.toArray(UUID[]::new);
+        Map<UUID, Agregado> lidos = new HashMap<>();
+        jdbcTemplate.query(SQL_RECARREGAR, parametros(referenciaLeitura,
+                ps -> ps.setArray(5, ps.getConnection().createArrayOf("uuid", array))),
+                rs -> {
+                    lidos.put(rs.getObject("id", UUID.class), ler(rs));
+                });
+
+        trava.lock();
+        try {
+            // Redecaimento ou reconstrução no meio: traz as somas lidas para a referência atual
+            var fator = peso(referenciaLeitura, referencia);
+            for (var id : ids) {
+                var aplicado = carimbosAplicados.get(id);
+                if (aplicado != null && aplicado > carimbo) {
+                    continue;
+                }
+                carimbosAplicados.put(id, carimbo);
+                var novo = lidos.get(id);
+                if (novo != null) {
+                    novo.somaPonderada *= fator;
+                    novo.peso *= fator;
+                }
+                aplicar(id, novo);
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Leitura completa em streaming, fora da trava. Funcionários recarregados enquanto ela roda
+     * ficam anotados e são relidos do banco depois da troca, para nenhuma avaliação se perder.
+     */
+    public void construir() {
+        var inicio = System.currentTimeMillis();
+        var agora = LocalDateTime.now();
+        trava.lock();
+        try {
+            tocadosDuranteConstrucao = new HashSet<>();
+        } finally {
+            trava.unlock();
+        }
+
+        Set<UUID> tocados;
+        Map<UUID, Agregado> novos = new HashMap<>();
+        var concluida = false;
+        try {
+            transacaoLeitura.executeWithoutResult(status -> jdbcTemplate.query(SQL_CONSTRUIR,
+                    parametros(agora, ps -> {}),
+                    rs -> {
+                        var agregado = ler(rs);
+                        if (agregado != null) {
+                            novos.put(rs.getObject("id", UUID.class), agregado);
+                        }
+                    }));
+            concluida = true;
+        } finally {
+            // Leitura que falhou no meio não substitui o ranking atual
+            trava.lock();
+            try {
+                tocados = tocadosDuranteConstrucao;
+                tocadosDuranteConstrucao = null;
+                if (concluida) {
+                    agregados = novos;
+                    referencia = agora;
+                    recalcular();
+                }
+            } finally {
+                trava.unlock();
+            }
+        }
+
+        recarregar(tocados);
+        logger.info("Ranking por cidade montado em {} ms ({} funcionários)", System.currentTimeMillis() - inicio, novos.size());
+    }
+
+    @Scheduled(fixedDelayString = "${api.ranking.redecaimento.intervalo:1h}",
+            initialDelayString = "${api.ranking.redecaimento.intervalo:1h}")
+    public void redecair() {
+        trava.lock();
+        try {
+            var agora = LocalDateTime.now();
+            var fator = peso(referencia, agora);
+            for (var agregado : agregados.values()) {
+                agregado.somaPonderada *= fator;
+                agregado.peso *= fator;
+            }
+            referencia = agora;
+            recalcular();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // Com a trava: nova média do prior e todas as posições, trocando o mapa de cidades de uma vez
+    private void recalcular() {
+        double somaPonderada = 0;
+        double peso = 0;
+        for (var agregado : agregados.values()) {
+            somaPonderada += agregado.somaPonderada;
+            peso += agregado.peso;
+        }
+        mediaPrior = peso > 0 ? somaPonderada / peso : MEDIA_PRIOR_PADRAO;
+
+        Map<String, NavigableSet<Posicao>> novasCidades = new ConcurrentHashMap<>();
+        agregados.forEach((id, agregado) -> {
+            agregado.posicao = posicao(id, agregado);
+            novasCidades.computeIfAbsent(chaveCidade(agregado.cidade), chave -> new ConcurrentSkipListSet<>(ORDEM))
+                    .add(agregado.posicao);
+        });
+        cidades = novasCidades;
+    }
+
+    // Com a trava: tira a posição antiga da cidade e coloca a nova (ou só tira, se novo == null)
+    private void aplicar(UUID id, Agregado novo) {
+        var atual = agregados.remove(id);
+        if (atual != null && atual.posicao != null) {
+            var posicoes = cidades.get(chaveCidade(atual.posicao.cidade()));
+            if (posicoes != null) {
+                posicoes.remove(atual.posicao);
+            }
+        }
+        if (novo == null) {
+            return;
+        }
+        novo.posicao = posicao(id, novo);
+        agregados.put(id, novo);
+        cidades.computeIfAbsent(chaveCidade(novo.cidade), chave -> new ConcurrentSkipListSet<>(ORDEM)).add(novo.posicao);
+    }
+
+    private Posicao posicao(UUID id, Agregado agregado) {
+        var pontuacao = (pesoPrior * mediaPrior + agregado.somaPonderada) / (pesoPrior + agregado.peso);
+        var media = agregado.total == 0 ? 0 : (double) agregado.somaNotas / agregado.total;
+        return new Posicao(id, agregado.nome, agregado.cidade, pontuacao, media, agregado.total);
+    }
+
+    // null: funcionário fora do ranking (inativo, sem cidade ou sem avaliações)
+    private static Agregado ler(ResultSet rs) throws SQLException {
+        var cidade = rs.getString("cidade");
+        var total = rs.getLong("total");
+        if (!StatusFuncionario.ATIVO.name().equals(rs.getString("status")) || cidade == null || cidade.isBlank()
+                || total == 0) {
+            return null;
+        }
+        var agregado = new Agregado();
+        agregado.nome = rs.getString("nome_completo");
+        agregado.cidade = cidade;
+        agregado.total = total;
+        agregado.somaNotas = rs.getLong("soma_notas");
+        agregado.somaPonderada = rs.getDouble("soma_ponderada");
+        agregado.peso = rs.getDouble("peso");
+        return agregado;
+    }
+
+    private PreparedStatementSetter parametros(LocalDateTime referenciaLeitura, PreparedStatementSetter demais) {
+        var instante = Timestamp.valueOf(referenciaLeitura);
+        return ps -> {
+            ps.setDouble(1, lambda);
+            ps.setTimestamp(2, instante);
+            ps.setDouble(3, lambda);
+            ps.setTimestamp(4, instante);
+            demais.setValues(ps);
+        };
+    }
+
+    // Peso de uma avaliação feita em "data" visto a partir de "ate"
+    private double peso(LocalDateTime data, LocalDateTime ate) {
+        return Math.exp(-lambda * Duration.between(data, ate).toMillis() / 1000.0);
+    }
+
+    private static String chaveCidade(String cidade) {
+        return Normalizer.normalize(cidade.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static double arredondar(double valor) {
+        return Math.round(valor * 1000.0) / 1000.0;
+    }
+}
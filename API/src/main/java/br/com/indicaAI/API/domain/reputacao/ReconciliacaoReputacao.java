@@ -0,0 +1,149 @@
+package br.com.indicaAI.API.domain.reputacao;
+
+import br.com.indicaAI.API.domain.shared.CachePerfis;
+import br.com.indicaAI.API.infrastructure.agendamento.ExecucaoDedicada;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+/**
+ * Recalcula funcionario_reputacao a partir de avaliacoes. Roda dividida em partições
+ * (hash do funcionario_id) processadas em paralelo, cada uma na sua transação.
+ */
+@Component
+public class ReconciliacaoReputacao implements DisposableBean {
+
+    // Sem o bit de sinal em bigint: abs() em int4 estoura quando hashtext devolve -2147483648
+    private static final String FILTRO_PARTICAO = "mod(hashtext(%s::text)::bigint & 2147483647, ?) = ?";
+
+    private static final String SQL_RECALCULAR = """
+            INSERT INTO funcionario_reputacao (funcionario_id, total_avaliacoes, soma_notas,
+                                               notas_1, notas_2, notas_3, notas_4, notas_5, ultima_avaliacao)
+            SELECT funcionario_id, COUNT(*), SUM(nota),
+                   COUNT(*) FILTER (WHERE nota = 1), COUNT(*) FILTER (WHERE nota = 2), COUNT(*) FILTER (WHERE nota = 3),
+                   COUNT(*) FILTER (WHERE nota = 4), COUNT(*) FILTER (WHERE nota = 5), MAX(data_avaliacao)
+              FROM avaliacoes
+             WHERE status = 'PUBLICADA' AND nota IS NOT NULL AND %s
+             GROUP BY funcionario_id
+            ON CONFLICT (funcionario_id) DO UPDATE SET
+                total_avaliacoes = EXCLUDED.total_avaliacoes,
+                soma_notas = EXCLUDED.soma_notas,
+                notas_1 = EXCLUDED.notas_1,
+                notas_2 = EXCLUDED.notas_2,
+                notas_3 = EXCLUDED.notas_3,
+                notas_4 = EXCLUDED.notas_4,
+                notas_5 = EXCLUDED.notas_5,
+                ultima_avaliacao = EXCLUDED.ultima_avaliacao
+            """;
+
+    // Trava os órfãos no mesmo comando que os apaga, inclusive linhas criadas depois do primeiro
+    // FOR UPDATE: um avaliar() concorrente espera e, com a linha apagada, o upsert dele insere de novo
+    private static final String SQL_REMOVER_ORFAOS = """
+            WITH orfaos AS (
+                SELECT r.funcionario_id
+                  FROM funcionario_reputacao r
+                 WHERE %s
+                   AND NOT EXISTS (SELECT 1 FROM avaliacoes a
+                                    WHERE a.funcionario_id = r.funcionario_id
+                                      AND a.status = 'PUBLICADA' AND a.nota IS NOT NULL)
+                   FOR UPDATE OF r
+            )
+            DELETE FROM funcionario_reputacao r
+             USING orfaos o
+             WHERE r.funcionario_id = o.funcionario_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int particoes;
+    private final CachePerfis cachePerfis;
+    // Espera todas as partições terminarem: fora do agendador compartilhado
+    private final ExecucaoDedicada execucao;
+    private final Logger logger = LoggerFactory.getLogger(ReconciliacaoReputacao.class);
+
+    public ReconciliacaoReputacao(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            @Value("${api.reputacao.reconciliacao.particoes:4}") int particoes, CachePerfis cachePerfis,
+            @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.particoes = particoes;
+        this.cachePerfis = cachePerfis;
+        this.execucao = new ExecucaoDedicada("reconciliacao-reputacao", threadsVirtuais);
+    }
+
+    @Scheduled(cron = "${api.reputacao.reconciliacao.cron:0 30 3 * * *}")
+    public void agendarReconciliacao() {
+        execucao.disparar(this::reconciliarTudo);
+    }
+
+    public void reconciliarTudo() {
+        var inicio = System.currentTimeMillis();
+        var executor = Executors.newFixedThreadPool(particoes);
+        try {
+            var tarefas = new ArrayList<CompletableFuture<Void>>();
+            for (int particao = 0; particao < particoes; particao++) {
+                var atual = particao;
+                tarefas.add(CompletableFuture.runAsync(() -> reconciliarParticao(atual), executor));
+            }
+            CompletableFuture.allOf(tarefas.toArray(CompletableFuture[]::new)).join();
+            // A reputação está em todos os perfis de funcionário em cache
+            cachePerfis.invalidarTodos(CachePerfis.Tipo.FUNCIONARIO);
+            logger.info("Reputações reconciliadas em {} ms ({} partições)", System.currentTimeMillis() - inicio, particoes);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Recalcula só os funcionários informados, na transação de quem chama (importação em lote
+     * usa depois de inserir cada bloco). Não remove linhas: quem chama só acrescenta avaliações.
+     */
+    public void reconciliar(Collection<UUID> funcionarioIds) {
+        if (funcionarioIds.isEmpty()) {
+            return;
+        }
+        var ids = funcionarioIds.toArray(UUID[]::new);
+        PreparedStatementSetter parametros = ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids));
+        jdbcTemplate.query("SELECT 1 FROM funcionario_reputacao r WHERE r.funcionario_id = ANY(?) FOR UPDATE",
+                parametros, rs -> {});
+        jdbcTemplate.update(SQL_RECALCULAR.formatted("funcionario_id = ANY(?)"), parametros);
+        cachePerfis.invalidar(CachePerfis.Tipo.FUNCIONARIO, funcionarioIds);
+    }
+
+    private void reconciliarParticao(int particao) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Outro nó já está nesta partição: deixa com ele
+            var bloqueado = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?, ?)", Boolean.class,
+                    "funcionario_reputacao".hashCode(), particao);
+            if (!Boolean.TRUE.equals(bloqueado)) {
+                return;
+            }
+
+            var filtroReputacao = FILTRO_PARTICAO.formatted("r.funcionario_id");
+            // Trava as linhas existentes antes de ler avaliacoes: um avaliar() concorrente espera
+            // este commit e soma por cima, em vez de ser sobrescrito pelo recálculo
+            jdbcTemplate.query("SELECT 1 FROM funcionario_reputacao r WHERE " + filtroReputacao + " FOR UPDATE",
+                    rs -> {}, particoes, particao);
+            jdbcTemplate.update(SQL_RECALCULAR.formatted(FILTRO_PARTICAO.formatted("funcionario_id")), particoes, particao);
+            // Ainda dentro do advisory lock da partição: dois nós nunca apagam a mesma partição ao mesmo tempo
+            jdbcTemplate.update(SQL_REMOVER_ORFAOS.formatted(filtroReputacao), particoes, particao);
+        });
+    }
+
+    @Override
+    public void destroy() {
+        execucao.close();
+    }
+}
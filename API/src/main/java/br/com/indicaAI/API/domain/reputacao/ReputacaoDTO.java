@@ -0,0 +1,41 @@
+package br.com.indicaAI.API.domain.reputacao;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resumo da reputação; "distribuicao" mapeia cada nota (1 a 5) para a quantidade recebida.
+ */
+public record ReputacaoDTO(
+        Double media,
+        long totalAvaliacoes,
+        Map<Integer, Long> distribuicao,
+        LocalDateTime ultimaAvaliacao
+) {
+    public static ReputacaoDTO vazia() {
+        return de(0, 0, 0, 0, 0, 0, 0, null);
+    }
+
+    public static ReputacaoDTO de(ReputacaoFuncionario reputacao) {
+        if (reputacao == null) {
+            return vazia();
+        }
+        return de(reputacao.getTotalAvaliacoes(), reputacao.getSomaNotas(), reputacao.getNotas1(),
+                reputacao.getNotas2(), reputacao.getNotas3(), reputacao.getNotas4(), reputacao.getNotas5(),
+                reputacao.getUltimaAvaliacao());
+    }
+
+    public static ReputacaoDTO de(long total, long soma, long notas1, long notas2, long notas3, long notas4,
+            long notas5, LocalDateTime ultimaAvaliacao) {
+        var distribuicao = new LinkedHashMap<Integer, Long>();
+        distribuicao.put(1, notas1);
+        distribuicao.put(2, notas2);
+        distribuicao.put(3, notas3);
+        distribuicao.put(4, notas4);
+        distribuicao.put(5, notas5);
+        var media = total == 0 ? null : Math.round(soma * 100.0 / total) / 100.0;
+        return new ReputacaoDTO(media, total, Collections.unmodifiableMap(distribuicao), ultimaAvaliacao);
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.indicaAI.API.domain.reputacao;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Agregado das notas de um funcionário, mantido a cada avaliação para a leitura ser O(1).
+ */
+@Entity
+@Table(name = "funcionario_reputacao")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "funcionarioId")
+public class ReputacaoFuncionario {
+
+    @Id
+    private UUID funcionarioId;
+
+    private long totalAvaliacoes;
+
+    private long somaNotas;
+
+    @Column(name = "notas_1")
+    private long notas1;
+
+    @Column(name = "notas_2")
+    private long notas2;
+
+    @Column(name = "notas_3")
+    private long notas3;
+
+    @Column(name = "notas_4")
+    private long notas4;
+
+    @Column(name = "notas_5")
+    private long notas5;
+
+    private LocalDateTime ultimaAvaliacao;
+}
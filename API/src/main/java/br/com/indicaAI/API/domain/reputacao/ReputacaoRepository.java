@@ -0,0 +1,32 @@
+package br.com.indicaAI.API.domain.reputacao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface ReputacaoRepository extends JpaRepository<ReputacaoFuncionario, UUID> {
+
+    // Upsert atômico: avaliações concorrentes do mesmo funcionário não perdem incremento
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO funcionario_reputacao AS r (funcionario_id, total_avaliacoes, soma_notas,
+                                                    notas_1, notas_2, notas_3, notas_4, notas_5, ultima_avaliacao)
+            VALUES (:funcionarioId, 1, :nota,
+                    CASE WHEN :nota = 1 THEN 1 ELSE 0 END, CASE WHEN :nota = 2 THEN 1 ELSE 0 END,
+                    CASE WHEN :nota = 3 THEN 1 ELSE 0 END, CASE WHEN :nota = 4 THEN 1 ELSE 0 END,
+                    CASE WHEN :nota = 5 THEN 1 ELSE 0 END, :data)
+            ON CONFLICT (funcionario_id) DO UPDATE SET
+                total_avaliacoes = r.total_avaliacoes + 1,
+                soma_notas = r.soma_notas + EXCLUDED.soma_notas,
+                notas_1 = r.notas_1 + EXCLUDED.notas_1,
+                notas_2 = r.notas_2 + EXCLUDED.notas_2,
+                notas_3 = r.notas_3 + EXCLUDED.notas_3,
+                notas_4 = r.notas_4 + EXCLUDED.notas_4,
+                notas_5 = r.notas_5 + EXCLUDED.notas_5,
+                ultima_avaliacao = GREATEST(r.ultima_avaliacao, EXCLUDED.ultima_avaliacao)
+            """)
+    void registrarAvaliacao(UUID funcionarioId, int nota, LocalDateTime data);
+}
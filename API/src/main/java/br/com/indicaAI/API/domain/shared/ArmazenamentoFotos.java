@@ -0,0 +1,16 @@
+package br.com.indicaAI.API.domain.shared;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * Armazenamento de imagens endereçado pelo conteúdo: a chave é o hash dos bytes,
+ * então salvar a mesma foto duas vezes não duplica nada.
+ */
+public interface ArmazenamentoFotos {
+    String salvar(byte[] conteudo);
+    Optional<FotoArmazenada> buscar(String chave);
+    // Copia em blocos para o destino, sem carregar a foto inteira na memória
+    void transferir(FotoArmazenada foto, OutputStream destino) throws IOException;
+}
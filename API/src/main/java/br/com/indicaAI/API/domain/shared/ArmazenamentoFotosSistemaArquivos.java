@@ -0,0 +1,112 @@
+package br.com.indicaAI.API.domain.shared;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+@Service
+@ConditionalOnProperty(name = "api.fotos.armazenamento", havingValue = "sistema-arquivos", matchIfMissing = true)
+public class ArmazenamentoFotosSistemaArquivos implements ArmazenamentoFotos {
+
+    private static final Pattern CHAVE_VALIDA = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path raiz;
+
+    public ArmazenamentoFotosSistemaArquivos(@Value("${api.fotos.diretorio}") Path raiz) throws IOException {
+        this.raiz = Files.createDirectories(raiz.toAbsolutePath().normalize());
+    }
+
+    @Override
+    public String salvar(byte[] conteudo) {
+        var chave = sha256(conteudo);
+        var destino = caminho(chave);
+        if (Files.exists(destino)) {
+            return chave;
+        }
+
+        try {
+            Files.createDirectories(destino.getParent());
+            // Escreve num temporário do mesmo diretório e move, para nunca expor arquivo pela metade
+            var temporario = Files.createTempFile(destino.getParent(), chave, ".tmp");
+            try {
+                Files.write(temporario, conteudo);
+                Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Outro nó gravou o mesmo conteúdo antes
+            } finally {
+                Files.deleteIfExists(temporario);
+            }
+            return chave;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar foto", e);
+        }
+    }
+
+    @Override
+    public Optional<FotoArmazenada> buscar(String chave) {
+        if (chave == null || !CHAVE_VALIDA.matcher(chave).matches()) {
+            return Optional.empty();
+        }
+        var arquivo = caminho(chave);
+        if (!Files.isRegularFile(arquivo)) {
+            return Optional.empty();
+        }
+
+        try (InputStream entrada = Files.newInputStream(arquivo)) {
+            return Optional.of(new FotoArmazenada(chave, Files.size(arquivo), detectarTipo(entrada.readNBytes(12))));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler foto", e);
+        }
+    }
+
+    @Override
+    public void transferir(FotoArmazenada foto, OutputStream destino) throws IOException {
+        Files.copy(caminho(foto.chave()), destino);
+    }
+
+    private Path caminho(String chave) {
+        return raiz.resolve(chave.substring(0, 2)).resolve(chave.substring(2, 4)).resolve(chave);
+    }
+
+    private static String sha256(byte[] conteudo) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(conteudo));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String detectarTipo(byte[] cabecalho) {
+        if (comeca(cabecalho, 0xFF, 0xD8, 0xFF)) return "image/jpeg";
+        if (comeca(cabecalho, 0x89, 'P', 'N', 'G')) return "image/png";
+        if (comeca(cabecalho, 'G', 'I', 'F')) return "image/gif";
+        if (comeca(cabecalho, '%', 'P', 'D', 'F')) return "application/pdf";
+        if (cabecalho.length >= 12 && comeca(cabecalho, 'R', 'I', 'F', 'F')
+                && cabecalho[8] == 'W' && cabecalho[9] == 'E' && cabecalho[10] == 'B' && cabecalho[11] == 'P') {
+            return "image/webp";
+        }
+        return "application/octet-stream";
+    }
+
+    private static boolean comeca(byte[] dados, int... prefixo) {
+        if (dados.length < prefixo.length) return false;
+        for (int i = 0; i < prefixo.length; i++) {
+            if ((dados[i] & 0xFF) != prefixo[i]) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,164 @@
+package br.com.indicaAI.API.domain.shared;
+
+import br.com.indicaAI.API.infrastructure.datasource.LeituraPrimario;
+import br.com.indicaAI.API.infrastructure.rabbitmq.RabbitMQConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache local (por nó) dos perfis de empresa e funcionário, guardados junto com a versão usada
+ * na ETag. Quem altera um perfil chama {@link #invalidar}: o nó descarta na hora e de novo depois
+ * do commit, e publica a invalidação no fanout para os outros nós. Se o broker estiver fora,
+ * os outros nós ficam com o valor antigo até o TTL.
+ */
+@Component
+public class CachePerfis {
+
+    public enum Tipo { EMPRESA, FUNCIONARIO }
+
+    public record Versionado<T>(String versao, T valor) {}
+
+    // Lista vazia: descarta todos os perfis do tipo
+    public record Invalidacao(Tipo tipo, List<UUID> ids) {}
+
+    private final Map<Tipo, Cache<UUID, Versionado<?>>> caches = new EnumMap<>(Tipo.class);
+    private final AtomicLong geracao = new AtomicLong();
+    private final RabbitTemplate rabbitTemplate;
+    private final CargaUnica cargaUnica;
+    private final Counter publicadas;
+    private final Counter falhas;
+    private final Logger logger = LoggerFactory.getLogger(CachePerfis.class);
+
+    public CachePerfis(RabbitTemplate rabbitTemplate, CargaUnica cargaUnica, MeterRegistry meterRegistry,
+            @Value("${api.perfis.cache.tamanho-maximo:20000}") long tamanhoMaximo,
+            @Value("${api.perfis.cache.ttl:5m}") Duration ttl) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.cargaUnica = cargaUnica;
+        for (var tipo : Tipo.values()) {
+            Cache<UUID, Versionado<?>> cache = Caffeine.newBuilder()
+                    .maximumSize(tamanhoMaximo)
+                    .expireAfterWrite(ttl)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "perfis-" + tipo.name().toLowerCase());
+            caches.put(tipo, cache);
+        }
+        this.publicadas = meterRegistry.counter("indicaai.perfis.invalidacoes", "resultado", "publicada");
+        this.falhas = meterRegistry.counter("indicaai.perfis.invalidacoes", "resultado", "falhou");
+    }
+
+    /**
+     * Mesmo esquema das credenciais em AutenticacaoService: carga fora do compute do Caffeine e,
+     * se uma invalidação chegou durante a carga, o valor lido sai do cache. Misses simultâneos do
+     * mesmo perfil dividem uma carga só (também com tamanho-maximo=0, ou seja, sem cache).
+     * A carga lê do primário: logo depois de uma invalidação a réplica pode não ter o commit ainda,
+     * e o valor antigo voltaria para o cache até o TTL.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Versionado<T> buscar(Tipo tipo, UUID id, Supplier<Versionado<T>> carga) {
+        var cache = caches.get(tipo);
+        var valor = (Versionado<T>) cache.getIfPresent(id);
+        if (valor != null) {
+            return valor;
+        }
+        var geracaoAntes = geracao.get();
+        valor = cargaUnica.executar(nomeCarga(tipo), id, () -> LeituraPrimario.executar(carga));
+        cache.put(id, valor);
+        if (geracao.get() != geracaoAntes) {
+            cache.invalidate(id);
+        }
+        return valor;
+    }
+
+    public void invalidar(Tipo tipo, UUID id) {
+        invalidar(tipo, List.of(id));
+    }
+
+    public void invalidarTodos(Tipo tipo) {
+        enviar(new Invalidacao(tipo, List.of()));
+    }
+
+    public void invalidar(Tipo tipo, Collection<UUID> ids) {
+        if (!ids.isEmpty()) {
+            enviar(new Invalidacao(tipo, List.copyOf(ids)));
+        }
+    }
+
+    private void enviar(Invalidacao invalidacao) {
+        descartar(invalidacao);
+        esquecerCargas(invalidacao);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publicar(invalidacao);
+            return;
+        }
+        // Os outros nós só podem recarregar depois do commit, senão leem o valor antigo de novo
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                descartar(invalidacao);
+                publicar(invalidacao);
+            }
+        });
+    }
+
+    // Fila exclusiva deste nó; a própria publicação também volta para cá, o que só repete o descarte
+    @RabbitListener(queues = "#{" + RabbitMQConfig.FILA_INVALIDACAO_PERFIS + ".name}")
+    public void receber(Invalidacao invalidacao) {
+        descartar(invalidacao);
+        esquecerCargas(invalidacao);
+    }
+
+    private void esquecerCargas(Invalidacao invalidacao) {
+        if (invalidacao.ids().isEmpty()) {
+            cargaUnica.esquecerTodos(nomeCarga(invalidacao.tipo()));
+        } else {
+            cargaUnica.esquecer(nomeCarga(invalidacao.tipo()), invalidacao.ids());
+        }
+    }
+
+    private static String nomeCarga(Tipo tipo) {
+        return "perfil-" + tipo.name().toLowerCase();
+    }
+
+    private void descartar(Invalidacao invalidacao) {
+        geracao.incrementAndGet();
+        var cache = caches.get(invalidacao.tipo());
+        if (invalidacao.ids().isEmpty()) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidateAll(invalidacao.ids());
+        }
+    }
+
+    private void publicar(Invalidacao invalidacao) {
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_INVALIDACAO_PERFIS, "", invalidacao);
+            publicadas.increment();
+        } catch (AmqpException e) {
+            falhas.increment();
+            logger.warn("Falha ao publicar invalidação de perfis {}; outros nós expiram pelo TTL", invalidacao.tipo(), e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.indicaAI.API.domain.shared;
+
+import br.com.indicaAI.API.infrastructure.datasource.LeituraPrimario;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight: leituras idênticas e simultâneas (mesmo tipo, id e parâmetros) esperam a
+ * consulta que já está em andamento em vez de abrir outra. Não guarda resultado: a entrada
+ * some assim que a carga termina, então isto só corta picos, com ou sem cache na frente.
+ * O ConcurrentHashMap trava por bin, não há lock global entre chaves diferentes.
+ * <p>
+ * Chame fora de transação e abra a transação dentro da carga: quem espera não segura conexão do
+ * pool. O destino da leitura entra na chave, então quem está preso ao primário
+ * ({@link LeituraPrimario}, logo depois de escrever) não pega carona numa carga da réplica.
+ */
+@Component
+public class CargaUnica {
+
+    private record Chave(String tipo, UUID id, Object parametros, boolean primario) {}
+
+    private final ConcurrentMap<Chave, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public CargaUnica(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T executar(String tipo, UUID id, Supplier<T> carga) {
+        return executar(tipo, id, null, carga);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T executar(String tipo, UUID id, Object parametros, Supplier<T> carga) {
+        var chave = new Chave(tipo, id, parametros, LeituraPrimario.forcada());
+        var nova = new CompletableFuture<Object>();
+        var existente = emAndamento.putIfAbsent(chave, nova);
+        if (existente != null) {
+            meterRegistry.counter("indicaai.carga.coalescida", "tipo", tipo).increment();
+            return (T) aguardar(existente);
+        }
+
+        try {
+            var valor = carga.get();
+            nova.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            nova.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, nova);
+        }
+    }
+
+    /**
+     * Quem chegar depois de uma escrita não pode pegar carona numa consulta que começou antes
+     * dela: a carga em andamento continua para quem já espera, mas sai do mapa. Dentro de uma
+     * transação repete depois do commit, como as invalidações de cache.
+     */
+    public void esquecer(String tipo, Collection<UUID> ids) {
+        if (!ids.isEmpty()) {
+            esquecerOnde(tipo, ids);
+        }
+    }
+
+    public void esquecerTodos(String tipo) {
+        esquecerOnde(tipo, List.of());
+    }
+
+    // Lista vazia: todos do tipo
+    private void esquecerOnde(String tipo, Collection<UUID> ids) {
+        remover(tipo, ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remover(tipo, ids);
+                }
+            });
+        }
+    }
+
+    private void remover(String tipo, Collection<UUID> ids) {
+        emAndamento.keySet().removeIf(chave -> chave.tipo().equals(tipo)
+                && (ids.isEmpty() || ids.contains(chave.id())));
+    }
+
+    private static Object aguardar(CompletableFuture<Object> carga) {
+        try {
+            return carga.join();
+        } catch (CompletionException e) {
+            // Mesma exceção da carga original (ex.: "não encontrado"), para o TratadorErros
+            var causa = Objects.requireNonNullElse(e.getCause(), e);
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package br.com.indicaAI.API.domain.shared;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import br.com.indicaAI.API.infrastructure.agendamento.ExecucaoDedicada;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Drena o outbox de e-mails em lotes. Cada lote é reservado numa transação curta
+ * (FOR UPDATE SKIP LOCKED + adiamento da próxima tentativa), enviado fora dela numa única
+ * conexão SMTP e então marcado como enviado ou reagendado com espera exponencial.
+ */
+@Component
+public class DespachanteEmails implements DisposableBean {
+
+    private final EmailPendenteRepository emailPendenteRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final String remetente;
+    private final int tamanhoLote;
+    private final int tentativasMaximas;
+    private final Duration esperaInicial;
+    private final Duration esperaMaxima;
+    private final Duration reserva;
+    private final Counter enviados;
+    private final Counter reagendados;
+    private final Counter falhos;
+    private final Timer tempoLote;
+    // Um servidor SMTP lento não segura a thread do agendador compartilhado
+    private final ExecucaoDedicada execucao;
+    private final Logger logger = LoggerFactory.getLogger(DespachanteEmails.class);
+
+    public DespachanteEmails(EmailPendenteRepository emailPendenteRepository, JavaMailSender mailSender,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+            @Value("${spring.mail.username}") String remetente,
+            @Value("${api.email.outbox.tamanho-lote:50}") int tamanhoLote,
+            @Value("${api.email.outbox.tentativas-maximas:8}") int tentativasMaximas,
+            @Value("${api.email.outbox.espera-inicial:30s}") Duration esperaInicial,
+            @Value("${api.email.outbox.espera-maxima:1h}") Duration esperaMaxima,
+            @Value("${api.email.outbox.reserva:5m}") Duration reserva,
+            @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais) {
+        this.emailPendenteRepository = emailPendenteRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.remetente = remetente;
+        this.tamanhoLote = tamanhoLote;
+        this.tentativasMaximas = tentativasMaximas;
+        this.esperaInicial = esperaInicial;
+        this.esperaMaxima = esperaMaxima;
+        this.reserva = reserva;
+        this.enviados = Counter.builder("indicaai.email.outbox").tag("resultado", "enviado").register(meterRegistry);
+        this.reagendados = Counter.builder("indicaai.email.outbox").tag("resultado", "reagendado").register(meterRegistry);
+        this.falhos = Counter.builder("indicaai.email.outbox").tag("resultado", "falhou").register(meterRegistry);
+        this.tempoLote = Timer.builder("indicaai.email.outbox.lote").register(meterRegistry);
+        this.execucao = new ExecucaoDedicada("despachante-emails", threadsVirtuais);
+    }
+
+    @Scheduled(fixedDelayString = "${api.email.outbox.intervalo:5s}")
+    public void agendarDespacho() {
+        execucao.disparar(this::despachar);
+    }
+
+    public void despachar() {
+        int processados;
+        do {
+            processados = tempoLote.record(this::despacharLote);
+        } while (processados == tamanhoLote);
+    }
+
+    private int despacharLote() {
+        List<EmailPendente> lote = transactionTemplate.execute(status -> {
+            var reservados = emailPendenteRepository.bloquearProntosParaEnvio(tamanhoLote);
+            // Se o nó cair no meio do envio, as linhas voltam a ficar disponíveis depois da reserva
+            var liberacao = LocalDateTime.now().plus(reserva);
+            reservados.forEach(email -> email.setProximaTentativa(liberacao));
+            return reservados;
+        });
+        if (lote == null || lote.isEmpty()) {
+            return 0;
+        }
+
+        Map<SimpleMailMessage, EmailPendente> porMensagem = new IdentityHashMap<>();
+        for (EmailPendente email : lote) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(remetente);
+            message.setTo(email.getDestinatario());
+            message.setSubject(email.getAssunto());
+            message.setText(email.getCorpo());
+            porMensagem.put(message, email);
+        }
+
+        Map<UUID, String> falhas = enviar(porMensagem);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            var ids = lote.stream().map(EmailPendente::getId).toList();
+            for (EmailPendente email : emailPendenteRepository.findAllById(ids)) {
+                String erro = falhas.get(email.getId());
+                if (erro == null) {
+                    email.marcarEnviado();
+                    enviados.increment();
+                    continue;
+                }
+                email.registrarFalha(erro, tentativasMaximas, esperaInicial, esperaMaxima);
+                if (email.getStatus() == StatusEmail.FALHOU) {
+                    falhos.increment();
+                    logger.error("Desistindo do e-mail {} para {} após {} tentativas: {}",
+                            email.getId(), email.getDestinatario(), email.getTentativas(), erro);
+                } else {
+                    reagendados.increment();
+                }
+            }
+        });
+        return lote.size();
+    }
+
+    private Map<UUID, String> enviar(Map<SimpleMailMessage, EmailPendente> porMensagem) {
+        Map<UUID, String> falhas = new HashMap<>();
+        try {
+            // JavaMailSenderImpl abre um único Transport para todo o array
+            mailSender.send(porMensagem.keySet().toArray(SimpleMailMessage[]::new));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                porMensagem.values().forEach(email -> falhas.put(email.getId(), mensagemErro(e)));
+            } else {
+                e.getFailedMessages().forEach((mensagem, erro) -> {
+                    EmailPendente email = porMensagem.get(mensagem);
+                    if (email != null) {
+                        falhas.put(email.getId(), mensagemErro(erro));
+                    }
+                });
+            }
+            logger.warn("Falha ao enviar {} de {} e-mails do outbox", falhas.size(), porMensagem.size());
+        } catch (MailException e) {
+            porMensagem.values().forEach(email -> falhas.put(email.getId(), mensagemErro(e)));
+            logger.warn("Falha ao enviar lote de e-mails do outbox: {}", e.getMessage());
+        }
+        return falhas;
+    }
+
+    private static String mensagemErro(Exception e) {
+        return Objects.requireNonNullElse(e.getMessage(), e.getClass().getName());
+    }
+
+    @Override
+    public void destroy() {
+        execucao.close();
+    }
+}
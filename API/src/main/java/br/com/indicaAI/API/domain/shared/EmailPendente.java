@@ -0,0 +1,75 @@
+package br.com.indicaAI.API.domain.shared;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "email_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class EmailPendente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private String destinatario;
+
+    @Column(nullable = false)
+    private String assunto;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String corpo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatusEmail status = StatusEmail.PENDENTE;
+
+    private int tentativas;
+
+    @Column(nullable = false)
+    private LocalDateTime proximaTentativa;
+
+    @Column(columnDefinition = "TEXT")
+    private String ultimoErro;
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm;
+
+    private LocalDateTime enviadoEm;
+
+    public EmailPendente(String destinatario, String assunto, String corpo) {
+        this.destinatario = destinatario;
+        this.assunto = assunto;
+        this.corpo = corpo;
+        this.criadoEm = LocalDateTime.now();
+        this.proximaTentativa = this.criadoEm;
+    }
+
+    public void marcarEnviado() {
+        this.status = StatusEmail.ENVIADO;
+        this.enviadoEm = LocalDateTime.now();
+        this.ultimoErro = null;
+    }
+
+    /**
+     * Agenda nova tentativa com espera exponencial ou desiste depois do limite.
+     */
+    public void registrarFalha(String erro, int tentativasMaximas, Duration esperaInicial, Duration esperaMaxima) {
+        this.tentativas++;
+        this.ultimoErro = erro;
+        if (tentativas >= tentativasMaximas) {
+            this.status = StatusEmail.FALHOU;
+            return;
+        }
+        var espera = esperaInicial.multipliedBy(1L << Math.min(tentativas - 1, 20));
+        this.proximaTentativa = LocalDateTime.now().plus(espera.compareTo(esperaMaxima) > 0 ? esperaMaxima : espera);
+    }
+}
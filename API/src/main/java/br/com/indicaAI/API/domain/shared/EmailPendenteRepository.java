@@ -0,0 +1,20 @@
+package br.com.indicaAI.API.domain.shared;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface EmailPendenteRepository extends JpaRepository<EmailPendente, UUID> {
+
+    // SKIP LOCKED: vários nós drenam o outbox sem pegar as mesmas linhas
+    @Query(nativeQuery = true, value = """
+            SELECT * FROM email_outbox
+             WHERE status = 'PENDENTE' AND proxima_tentativa <= now()
+             ORDER BY proxima_tentativa
+             LIMIT :limite
+               FOR UPDATE SKIP LOCKED
+            """)
+    List<EmailPendente> bloquearProntosParaEnvio(int limite);
+}
@@ -0,0 +1,68 @@
+package br.com.indicaAI.API.domain.shared;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de strings, seguro para várias threads sem lock (bits em AtomicLongArray).
+ * "Não contém" é definitivo; "talvez contém" erra na taxa configurada enquanto o número de
+ * inserções ficar dentro da capacidade, e piora aos poucos depois dela.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long tamanho;
+    private final int funcoes;
+
+    public FiltroBloom(long capacidade, double taxaFalsoPositivo) {
+        var n = Math.max(1, capacidade);
+        var m = (long) Math.ceil(-n * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64));
+        this.tamanho = (long) bits.length() * 64;
+        this.funcoes = Math.max(1, (int) Math.round((double) tamanho / n * Math.log(2)));
+    }
+
+    public void adicionar(String valor) {
+        var h1 = hash(valor);
+        var h2 = misturar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            var bit = Math.floorMod(h1 + i * h2, tamanho);
+            var mascara = 1L << (bit & 63);
+            var indice = (int) (bit >>> 6);
+            if ((bits.get(indice) & mascara) == 0) {
+                bits.getAndAccumulate(indice, mascara, (atual, novo) -> atual | novo);
+            }
+        }
+    }
+
+    public boolean talvezContem(String valor) {
+        var h1 = hash(valor);
+        var h2 = misturar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            var bit = Math.floorMod(h1 + i * h2, tamanho);
+            if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits nos bytes UTF-8, com a finalização do MurmurHash3 para espalhar os bits
+    private static long hash(String valor) {
+        var h = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return misturar(h);
+    }
+
+    private static long misturar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
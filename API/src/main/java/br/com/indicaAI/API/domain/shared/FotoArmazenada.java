@@ -0,0 +1,8 @@
+package br.com.indicaAI.API.domain.shared;
+
+public record FotoArmazenada(
+        String chave,
+        long tamanho,
+        String tipoConteudo
+) {
+}
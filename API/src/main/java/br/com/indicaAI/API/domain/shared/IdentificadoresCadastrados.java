@@ -0,0 +1,126 @@
+package br.com.indicaAI.API.domain.shared;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Filtros de Bloom (por nó) de CPF, CNPJ e e-mails já cadastrados. O cadastro só consulta o
+ * banco antes do insert quando o filtro diz "talvez"; identificador que o filtro não conhece vai
+ * direto para o insert, e as constraints UNIQUE continuam decidindo (cadastros de outros nós,
+ * corridas). Até a primeira carga terminar tudo conta como "talvez".
+ */
+@Component
+public class IdentificadoresCadastrados {
+
+    public enum Identificador { CPF, EMAIL_FUNCIONARIO, CNPJ, EMAIL_EMPRESA }
+
+    private static final String SQL_CONTAGEM = """
+            SELECT GREATEST((SELECT COUNT(*) FROM funcionarios), (SELECT COUNT(*) FROM empresas))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskExecutor executor;
+    private final long capacidadeMinima;
+    private final double taxaFalsoPositivo;
+    private final Map<Identificador, Counter> novos = new EnumMap<>(Identificador.class);
+    private final Map<Identificador, Counter> talvez = new EnumMap<>(Identificador.class);
+    private final Logger logger = LoggerFactory.getLogger(IdentificadoresCadastrados.class);
+
+    private volatile Map<Identificador, FiltroBloom> filtros;
+    // Filtros da carga em andamento: cadastros feitos durante a varredura entram nos dois
+    private volatile Map<Identificador, FiltroBloom> emConstrucao;
+
+    public IdentificadoresCadastrados(JdbcTemplate jdbcTemplate,
+            @Qualifier("applicationTaskExecutor") TaskExecutor executor, MeterRegistry meterRegistry,
+            @Value("${api.cadastro.filtro.capacidade-minima:1000000}") long capacidadeMinima,
+            @Value("${api.cadastro.filtro.taxa-falso-positivo:0.01}") double taxaFalsoPositivo) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(5000);
+        this.executor = executor;
+        this.capacidadeMinima = capacidadeMinima;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+        for (var identificador : Identificador.values()) {
+            var nome = identificador.name().toLowerCase();
+            novos.put(identificador, meterRegistry.counter("indicaai.cadastro.filtro", "identificador", nome,
+                    "resultado", "novo"));
+            talvez.put(identificador, meterRegistry.counter("indicaai.cadastro.filtro", "identificador", nome,
+                    "resultado", "talvez"));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        executor.execute(this::construir);
+    }
+
+    public void construir() {
+        try {
+            var existentes = jdbcTemplate.queryForObject(SQL_CONTAGEM, Long.class);
+            // Folga para os cadastros até o próximo restart sem passar da taxa de falso positivo
+            var capacidade = Math.max(capacidadeMinima, 2 * (existentes == null ? 0 : existentes));
+            var novosFiltros = new EnumMap<Identificador, FiltroBloom>(Identificador.class);
+            for (var identificador : Identificador.values()) {
+                novosFiltros.put(identificador, new FiltroBloom(capacidade, taxaFalsoPositivo));
+            }
+            emConstrucao = novosFiltros;
+
+            jdbcTemplate.query("SELECT cpf, email FROM funcionarios", rs -> {
+                novosFiltros.get(Identificador.CPF).adicionar(rs.getString(1));
+                novosFiltros.get(Identificador.EMAIL_FUNCIONARIO).adicionar(rs.getString(2));
+            });
+            jdbcTemplate.query("SELECT cnpj, email FROM empresas", rs -> {
+                novosFiltros.get(Identificador.CNPJ).adicionar(rs.getString(1));
+                novosFiltros.get(Identificador.EMAIL_EMPRESA).adicionar(rs.getString(2));
+            });
+
+            filtros = novosFiltros;
+            logger.info("Filtros de identificadores carregados: {} registro(s), capacidade {}", existentes, capacidade);
+        } catch (Exception e) {
+            // Sem filtro o cadastro só volta a consultar o banco antes do insert
+            logger.warn("Falha ao carregar os filtros de identificadores: {}", e.getMessage());
+        } finally {
+            emConstrucao = null;
+        }
+    }
+
+    /**
+     * false: o identificador com certeza não estava cadastrado quando o filtro foi montado (nem
+     * foi cadastrado depois por este nó), e a consulta prévia pode ser pulada.
+     */
+    public boolean talvezExista(Identificador identificador, String valor) {
+        var atuais = filtros;
+        if (atuais == null || valor == null || atuais.get(identificador).talvezContem(valor)) {
+            talvez.get(identificador).increment();
+            return true;
+        }
+        novos.get(identificador).increment();
+        return false;
+    }
+
+    // Chamado no insert, antes do commit: se a transação falhar, sobra só um "talvez" a mais
+    public void registrar(Identificador identificador, String valor) {
+        if (valor == null) {
+            return;
+        }
+        var atuais = filtros;
+        if (atuais != null) {
+            atuais.get(identificador).adicionar(valor);
+        }
+        var carga = emConstrucao;
+        if (carga != null) {
+            carga.get(identificador).adicionar(valor);
+        }
+    }
+}
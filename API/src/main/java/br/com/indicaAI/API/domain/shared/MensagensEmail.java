@@ -0,0 +1,28 @@
+package br.com.indicaAI.API.domain.shared;
+
+/**
+ * Textos dos e-mails, compartilhados entre o envio direto e o outbox.
+ */
+final class MensagensEmail {
+
+    static final String ASSUNTO_APROVACAO = "Bem-vindo ao IndicaAI!";
+    static final String ASSUNTO_REJEICAO = "Atualização sobre seu cadastro no IndicaAI";
+
+    private MensagensEmail() {
+    }
+
+    static String corpoAprovacao(String nome) {
+        return "Olá " + nome + ",\n\n"
+                + "Seu perfil foi APROVADO com sucesso!\n"
+                + "Acesse agora: http://link-do-seu-sistema.com\n\n"
+                + "Atenciosamente,\nEquipe IndicaAI";
+    }
+
+    static String corpoRejeicao(String nome, String motivo) {
+        return "Olá " + nome + ",\n\n"
+                + "Infelizmente não validamos seu perfil no momento.\n"
+                + "Motivo: " + motivo + "\n\n"
+                + "Você pode tentar novamente enviando novas fotos: http://link-correcao.com\n\n"
+                + "Atenciosamente,\nEquipe IndicaAI";
+    }
+}
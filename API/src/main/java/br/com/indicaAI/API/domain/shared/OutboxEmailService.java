@@ -0,0 +1,31 @@
+package br.com.indicaAI.API.domain.shared;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Grava o e-mail no outbox, na transação de quem chamou. O envio SMTP fica com o
+ * {@link DespachanteEmails}, fora do caminho da requisição ou do listener.
+ */
+@Service
+@Primary
+public class OutboxEmailService implements EmailService {
+
+    private final EmailPendenteRepository emailPendenteRepository;
+
+    public OutboxEmailService(EmailPendenteRepository emailPendenteRepository) {
+        this.emailPendenteRepository = emailPendenteRepository;
+    }
+
+    @Override
+    public void enviarEmailAprovacao(String email, String nome) {
+        emailPendenteRepository.save(new EmailPendente(email, MensagensEmail.ASSUNTO_APROVACAO,
+                MensagensEmail.corpoAprovacao(nome)));
+    }
+
+    @Override
+    public void enviarEmailRejeicao(String email, String nome, String motivo) {
+        emailPendenteRepository.save(new EmailPendente(email, MensagensEmail.ASSUNTO_REJEICAO,
+                MensagensEmail.corpoRejeicao(nome, motivo)));
+    }
+}
@@ -2,14 +2,14 @@ package br.com.indicaAI.API.domain.shared;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Primary;
-import org.springframework.context.annotation.Profile;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+/**
+ * Envio direto e síncrono. O caminho padrão é o {@link OutboxEmailService}.
+ */
 @Service
-@Primary
 public class SmtpEmailService implements EmailService {
 
     @Autowired
@@ -23,11 +23,8 @@ public class SmtpEmailService implements EmailService {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setFrom(remetente);
         message.setTo(email);
-        message.setSubject("Bem-vindo ao IndicaAI!");
-        message.setText("Olá " + nome + ",\n\n"
-                + "Seu perfil foi APROVADO com sucesso!\n"
-                + "Acesse agora: http://link-do-seu-sistema.com\n\n"
-                + "Atenciosamente,\nEquipe IndicaAI");
+        message.setSubject(MensagensEmail.ASSUNTO_APROVACAO);
+        message.setText(MensagensEmail.corpoAprovacao(nome));
 
         mailSender.send(message);
         System.out.println("E-mail de aprovação enviado para: " + email);
@@ -38,14 +35,10 @@ public class SmtpEmailService implements EmailService {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setFrom(remetente);
         message.setTo(email);
-        message.setSubject("Atualização sobre seu cadastro no IndicaAI");
-        message.setText("Olá " + nome + ",\n\n"
-                + "Infelizmente não validamos seu perfil no momento.\n"
-                + "Motivo: " + motivo + "\n\n"
-                + "Você pode tentar novamente enviando novas fotos: http://link-correcao.com\n\n"
-                + "Atenciosamente,\nEquipe IndicaAI");
+        message.setSubject(MensagensEmail.ASSUNTO_REJEICAO);
+        message.setText(MensagensEmail.corpoRejeicao(nome, motivo));
 
         mailSender.send(message);
         System.out.println("E-mail de rejeição enviado para: " + email);
     }
-}
\ No newline at end of file
+}
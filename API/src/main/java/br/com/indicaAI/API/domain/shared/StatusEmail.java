@@ -0,0 +1,7 @@
+package br.com.indicaAI.API.domain.shared;
+
+public enum StatusEmail {
+    PENDENTE,
+    ENVIADO,
+    FALHOU
+}
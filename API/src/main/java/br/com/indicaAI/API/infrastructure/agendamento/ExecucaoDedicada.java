@@ -0,0 +1,71 @@
+package br.com.indicaAI.API.infrastructure.agendamento;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Thread própria para um job @Scheduled que pode demorar (SMTP, reconciliação, réplica que não
+ * responde). O método agendado só entrega a execução e devolve na hora a thread do agendador,
+ * que é compartilhada com os jobs de poucos segundos. Roda uma execução por vez: disparo que
+ * chega com a anterior ainda em andamento é descartado. Com spring.threads.virtual.enabled a
+ * thread dedicada também é virtual, como as do agendador e dos listeners nesse modo.
+ */
+public class ExecucaoDedicada implements AutoCloseable {
+
+    private final String nome;
+    private final ExecutorService executor;
+    private final AtomicBoolean emAndamento = new AtomicBoolean();
+    private final Logger logger = LoggerFactory.getLogger(ExecucaoDedicada.class);
+
+    public ExecucaoDedicada(String nome, boolean threadVirtual) {
+        this.nome = nome;
+        this.executor = Executors.newSingleThreadExecutor(threadVirtual ? fabricaVirtual(nome) : tarefa -> {
+            var thread = new Thread(tarefa, nome);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Thread.ofVirtual() só existe a partir do Java 21 e o build padrão é 17 (ver o perfil java21)
+    private static ThreadFactory fabricaVirtual(String nome) {
+        try {
+            var construtor = Class.forName("java.lang.Thread$Builder");
+            var virtual = Thread.class.getMethod("ofVirtual").invoke(null);
+            virtual = construtor.getMethod("name", String.class).invoke(virtual, nome);
+            return (ThreadFactory) construtor.getMethod("factory").invoke(virtual);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("spring.threads.virtual.enabled exige Java 21", e);
+        }
+    }
+
+    public void disparar(Runnable tarefa) {
+        if (!emAndamento.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    tarefa.run();
+                } catch (RuntimeException e) {
+                    logger.error("Falha na execução de {}", nome, e);
+                } finally {
+                    emAndamento.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Só acontece no desligamento
+            emAndamento.set(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.indicaAI.API.infrastructure.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marca a thread atual para que as leituras read-only usem o primário em vez de uma réplica.
+ * Sem réplicas configuradas não tem efeito (tudo já vai para o primário).
+ */
+public final class LeituraPrimario {
+
+    private static final ThreadLocal<Boolean> FORCADA = new ThreadLocal<>();
+
+    private LeituraPrimario() {
+    }
+
+    public static boolean forcada() {
+        return Boolean.TRUE.equals(FORCADA.get());
+    }
+
+    public static <T> T executar(Supplier<T> leitura) {
+        if (forcada()) {
+            return leitura.get();
+        }
+        FORCADA.set(Boolean.TRUE);
+        try {
+            return leitura.get();
+        } finally {
+            FORCADA.remove();
+        }
+    }
+
+    static void forcar() {
+        FORCADA.set(Boolean.TRUE);
+    }
+
+    static void liberar() {
+        FORCADA.remove();
+    }
+}
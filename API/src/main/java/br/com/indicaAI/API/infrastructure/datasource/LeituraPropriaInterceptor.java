@@ -0,0 +1,98 @@
+package br.com.indicaAI.API.infrastructure.datasource;
+
+import br.com.indicaAI.API.domain.autenticacao.UsuarioAutenticado;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Read-your-writes: depois de uma requisição de escrita, as leituras do mesmo usuário vão para o
+ * primário durante a janela, para não enxergar uma réplica que ainda não aplicou a alteração.
+ * A marcação em memória vale só no nó que recebeu a escrita; para os outros nós a resposta da
+ * escrita leva {@value #CABECALHO} (fim da janela em epoch millis), que o cliente devolve nas
+ * leituras seguintes. Perfis (/me) já são lidos do primário pelo cache de perfis em qualquer nó.
+ */
+public class LeituraPropriaInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String CABECALHO = "X-Leitura-Primario-Ate";
+
+    private final Cache<UUID, Boolean> escritasRecentes;
+    private final long janelaMillis;
+
+    public LeituraPropriaInterceptor(Duration janela, long tamanhoMaximo) {
+        this.janelaMillis = janela.toMillis();
+        this.escritasRecentes = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(janela)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        var usuario = usuarioAtual();
+        if (usuario == null) {
+            return true;
+        }
+        if (escrita(request)) {
+            // Marca já na entrada: uma leitura paralela do mesmo usuário pode chegar antes do fim desta.
+            // O cabeçalho também vai agora, porque em afterCompletion a resposta já foi enviada.
+            escritasRecentes.put(usuario, Boolean.TRUE);
+            response.setHeader(CABECALHO, Long.toString(System.currentTimeMillis() + janelaMillis));
+        } else if (escritasRecentes.getIfPresent(usuario) != null || dentroDaJanela(request)) {
+            LeituraPrimario.forcar();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        LeituraPrimario.liberar();
+        var usuario = usuarioAtual();
+        // A janela conta a partir do commit, que já aconteceu quando a resposta foi montada
+        if (usuario != null && escrita(request) && response.getStatus() < 400) {
+            escritasRecentes.put(usuario, Boolean.TRUE);
+        }
+    }
+
+    // Requisições assíncronas (exportações) liberam a thread do container sem passar por afterCompletion
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        LeituraPrimario.liberar();
+    }
+
+    // Só vale um prazo que este servidor poderia ter emitido: o cliente não prende as leituras no primário
+    private boolean dentroDaJanela(HttpServletRequest request) {
+        var valor = request.getHeader(CABECALHO);
+        if (valor == null) {
+            return false;
+        }
+        try {
+            var ate = Long.parseLong(valor.trim());
+            var agora = System.currentTimeMillis();
+            return ate > agora && ate <= agora + janelaMillis;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean escrita(HttpServletRequest request) {
+        var metodo = request.getMethod();
+        return !"GET".equals(metodo) && !"HEAD".equals(metodo) && !"OPTIONS".equals(metodo);
+    }
+
+    private static UUID usuarioAtual() {
+        var autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao != null && autenticacao.getPrincipal() instanceof UsuarioAutenticado usuario) {
+            return usuario.id();
+        }
+        return null;
+    }
+}
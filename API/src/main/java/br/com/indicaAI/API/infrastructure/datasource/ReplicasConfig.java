@@ -0,0 +1,88 @@
+package br.com.indicaAI.API.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Só entra com réplicas configuradas (api.datasource.replicas.urls); sem elas fica o DataSource
+ * padrão do Spring Boot. Escritas e transações normais usam o primário; transações read-only
+ * (@Transactional(readOnly = true) e os findById/findAll herdados dos repositórios; query methods
+ * próprios não têm transação padrão) pegam a conexão de {@link ReplicasLeitura}. O proxy lazy só busca a conexão física no primeiro comando,
+ * quando o flag read-only da transação já foi aplicado.
+ */
+@Configuration
+@ConditionalOnExpression("!'${api.datasource.replicas.urls:}'.isBlank()")
+public class ReplicasConfig implements WebMvcConfigurer {
+
+    @Value("${api.datasource.leitura-propria.janela:5s}")
+    private Duration janelaLeituraPropria;
+
+    @Value("${api.datasource.leitura-propria.tamanho-maximo:100000}")
+    private long tamanhoMaximoLeituraPropria;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties properties) {
+        var dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicasLeitura replicasLeitura(HikariDataSource dataSourcePrimario, MeterRegistry meterRegistry,
+            @Value("${api.datasource.replicas.urls}") List<String> urls,
+            @Value("${api.datasource.replicas.pool-size:10}") int tamanhoPool,
+            @Value("${api.datasource.replicas.connection-timeout:2s}") Duration timeout,
+            @Value("${api.datasource.replicas.atraso-maximo:10s}") Duration atrasoMaximo,
+            @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais) {
+        var pools = new ArrayList<HikariDataSource>();
+        for (var url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            // Mesmas credenciais e propriedades do primário; réplica fora do ar não impede a subida
+            var config = new HikariConfig();
+            dataSourcePrimario.copyStateTo(config);
+            config.setJdbcUrl(url.trim());
+            config.setPoolName("replica-" + (pools.size() + 1));
+            config.setMaximumPoolSize(tamanhoPool);
+            config.setConnectionTimeout(timeout.toMillis());
+            config.setInitializationFailTimeout(-1);
+            config.setReadOnly(true);
+            config.setMetricRegistry(null);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(new HikariDataSource(config));
+        }
+        return new ReplicasLeitura(dataSourcePrimario, pools, atrasoMaximo, meterRegistry, threadsVirtuais);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource dataSourcePrimario, ReplicasLeitura replicasLeitura) {
+        var dataSource = new LazyConnectionDataSourceProxy(dataSourcePrimario);
+        dataSource.setReadOnlyDataSource(replicasLeitura);
+        return dataSource;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new LeituraPropriaInterceptor(janelaLeituraPropria, tamanhoMaximoLeituraPropria));
+    }
+}
@@ -0,0 +1,144 @@
+package br.com.indicaAI.API.infrastructure.datasource;
+
+import br.com.indicaAI.API.infrastructure.agendamento.ExecucaoDedicada;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource das transações read-only: distribui as conexões entre as réplicas saudáveis
+ * (round-robin) e cai para o primário quando nenhuma está disponível, quando a réplica recusa a
+ * conexão ou quando a thread pediu {@link LeituraPrimario}. A saúde é verificada em segundo plano:
+ * réplica que não responde ou está mais atrasada que o limite sai da rotação até se recuperar.
+ */
+public class ReplicasLeitura extends AbstractDataSource implements DisposableBean {
+
+    // Réplica em dia (tudo que recebeu já foi aplicado) conta como atraso zero, mesmo com o primário parado
+    private static final String SQL_ATRASO = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final DataSource primario;
+    private final List<Replica> replicas;
+    private final double atrasoMaximoSegundos;
+    private final AtomicInteger proxima = new AtomicInteger();
+    private final Counter leiturasReplica;
+    private final Counter leiturasPrimario;
+    // Réplica pendurada leva até o timeout de conexão + 5s de consulta, cada uma
+    private final ExecucaoDedicada execucao;
+    private final Logger logger = LoggerFactory.getLogger(ReplicasLeitura.class);
+
+    public ReplicasLeitura(DataSource primario, List<HikariDataSource> pools, Duration atrasoMaximo,
+            MeterRegistry meterRegistry, boolean threadsVirtuais) {
+        this.primario = primario;
+        this.replicas = pools.stream().map(Replica::new).toList();
+        this.atrasoMaximoSegundos = atrasoMaximo.toMillis() / 1000.0;
+        this.execucao = new ExecucaoDedicada("verificacao-replicas", threadsVirtuais);
+        this.leiturasReplica = meterRegistry.counter("indicaai.datasource.leituras", "destino", "replica");
+        this.leiturasPrimario = meterRegistry.counter("indicaai.datasource.leituras", "destino", "primario");
+
+        Gauge.builder("indicaai.datasource.replicas.saudaveis", this, ReplicasLeitura::saudaveis)
+                .register(meterRegistry);
+        for (var replica : replicas) {
+            Gauge.builder("indicaai.datasource.replica.atraso", replica, r -> r.atrasoSegundos)
+                    .tag("replica", replica.pool.getPoolName())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!replicas.isEmpty() && !LeituraPrimario.forcada()) {
+            var inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                var replica = replicas.get((inicio + i) % replicas.size());
+                if (!replica.saudavel) {
+                    continue;
+                }
+                try {
+                    var conexao = replica.pool.getConnection();
+                    leiturasReplica.increment();
+                    return conexao;
+                } catch (SQLException e) {
+                    // Fica fora da rotação até a próxima verificação que der certo
+                    replica.saudavel = false;
+                    logger.warn("Réplica {} indisponível, leitura vai para o primário: {}",
+                            replica.pool.getPoolName(), e.getMessage());
+                }
+            }
+        }
+        leiturasPrimario.increment();
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Os pools Hikari têm credenciais fixas; trocar de usuário por conexão não existe aqui
+        throw new SQLFeatureNotSupportedException("Réplicas usam as credenciais do pool");
+    }
+
+    @Scheduled(fixedDelayString = "${api.datasource.replicas.verificacao:5s}")
+    public void agendarVerificacao() {
+        execucao.disparar(this::verificar);
+    }
+
+    public void verificar() {
+        for (var replica : replicas) {
+            var estavaSaudavel = replica.saudavel;
+            try (var conexao = replica.pool.getConnection(); var consulta = conexao.createStatement()) {
+                consulta.setQueryTimeout(5);
+                try (var rs = consulta.executeQuery(SQL_ATRASO)) {
+                    rs.next();
+                    replica.atrasoSegundos = rs.getDouble(1);
+                }
+                replica.saudavel = replica.atrasoSegundos <= atrasoMaximoSegundos;
+            } catch (SQLException e) {
+                replica.saudavel = false;
+            }
+
+            if (estavaSaudavel != replica.saudavel) {
+                logger.info("Réplica {} {} (atraso {}s)", replica.pool.getPoolName(),
+                        replica.saudavel ? "voltou para a rotação" : "saiu da rotação", replica.atrasoSegundos);
+            }
+        }
+    }
+
+    private double saudaveis() {
+        return replicas.stream().filter(r -> r.saudavel).count();
+    }
+
+    @Override
+    public void destroy() {
+        execucao.close();
+        replicas.forEach(r -> r.pool.close());
+    }
+
+    private static final class Replica {
+        private final HikariDataSource pool;
+        // Começa fora da rotação: só entra depois da primeira verificação
+        private volatile boolean saudavel;
+        private volatile double atrasoSegundos;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+}
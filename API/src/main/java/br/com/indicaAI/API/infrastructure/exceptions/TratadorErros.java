@@ -1,5 +1,13 @@
 package br.com.indicaAI.API.infrastructure.exceptions;
 
+import br.com.indicaAI.API.domain.avaliacao.ExportacaoIndisponivelException;
+import br.com.indicaAI.API.infrastructure.security.HashingIndisponivelException;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -7,10 +15,18 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.List;
+import java.util.Map;
 
 @RestControllerAdvice
 public class TratadorErros {
 
+    // Constraints UNIQUE do V1 (nomes gerados pelo Postgres) com as mensagens da consulta prévia
+    private static final Map<String, String> DUPLICIDADES = Map.of(
+            "funcionarios_cpf_key", "CPF já cadastrado",
+            "funcionarios_email_key", "Email já cadastrado",
+            "empresas_cnpj_key", "CNPJ já cadastrado",
+            "empresas_email_key", "Email já cadastrado");
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<List<DadosErroValidacao>> tratarErro400(MethodArgumentNotValidException ex) {
         var erros = ex.getFieldErrors().stream()
@@ -20,6 +36,46 @@ public class TratadorErros {
         return ResponseEntity.badRequest().body(erros);
     }
 
+    @ExceptionHandler(HashingIndisponivelException.class)
+    public ResponseEntity<Object> tratarErro503(HashingIndisponivelException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(ExportacaoIndisponivelException.class)
+    public ResponseEntity<Object> tratarExportacaoIndisponivel(ExportacaoIndisponivelException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(ex.getMessage());
+    }
+
+    // @Version: outra requisição alterou o registro entre a leitura e o commit
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> tratarErro409(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("O registro foi alterado por outra requisição. Recarregue e tente novamente.");
+    }
+
+    // Duplicidade que passou pelo filtro de identificadores (outro nó, cadastros simultâneos)
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Object> tratarDuplicidade(DataIntegrityViolationException ex) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao && violacao.getConstraintName() != null) {
+                var mensagem = DUPLICIDADES.get(violacao.getConstraintName());
+                if (mensagem != null) {
+                    return ResponseEntity.badRequest().body(mensagem);
+                }
+            }
+        }
+        throw ex;
+    }
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ResponseEntity<Object> tratarErro404(EntityNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Object> tratarErroRegraNegocio(IllegalArgumentException ex) {
         return ResponseEntity.badRequest().body(ex.getMessage());
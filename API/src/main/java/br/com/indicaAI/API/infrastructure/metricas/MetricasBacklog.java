@@ -0,0 +1,92 @@
+package br.com.indicaAI.API.infrastructure.metricas;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gauges de fila de trabalho e de saturação do pool. As contagens vêm do banco e são
+ * atualizadas num agendamento, para o scrape do Prometheus não disparar consultas.
+ */
+@Component
+public class MetricasBacklog {
+
+    private static final String SQL_BACKLOG = """
+            SELECT (SELECT count(*) FROM funcionarios WHERE status = 'PENDENTE_VALIDACAO'),
+                   (SELECT COALESCE(EXTRACT(EPOCH FROM now() - min(data_cadastro)), 0)
+                      FROM funcionarios WHERE status = 'PENDENTE_VALIDACAO'),
+                   (SELECT count(*) FROM validacao_outbox WHERE enviado_em IS NULL),
+                   (SELECT count(*) FROM email_outbox WHERE status = 'PENDENTE')
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicLong pendentesValidacao = new AtomicLong();
+    private final AtomicLong segundosPendenteMaisAntigo = new AtomicLong();
+    private final AtomicLong outboxValidacao = new AtomicLong();
+    private final AtomicLong outboxEmail = new AtomicLong();
+    private final Logger logger = LoggerFactory.getLogger(MetricasBacklog.class);
+
+    public MetricasBacklog(JdbcTemplate jdbcTemplate, DataSource dataSource, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        Gauge.builder("indicaai.validacao.pendentes", pendentesValidacao, AtomicLong::get)
+                .description("Funcionários em PENDENTE_VALIDACAO")
+                .register(meterRegistry);
+        Gauge.builder("indicaai.validacao.pendente.mais.antigo", segundosPendenteMaisAntigo, AtomicLong::get)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("indicaai.outbox.pendentes", outboxValidacao, AtomicLong::get)
+                .tag("outbox", "validacao")
+                .register(meterRegistry);
+        Gauge.builder("indicaai.outbox.pendentes", outboxEmail, AtomicLong::get)
+                .tag("outbox", "email")
+                .register(meterRegistry);
+
+        var hikari = hikari(dataSource);
+        if (hikari != null) {
+            // Fração do pool em uso (1.0 = toda conexão emprestada); requests esperando aparecem em hikaricp.connections.pending
+            Gauge.builder("indicaai.hikari.saturacao", hikari, MetricasBacklog::saturacao)
+                    .tag("pool", String.valueOf(hikari.getPoolName()))
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api.metricas.backlog.intervalo:30s}")
+    public void atualizar() {
+        try {
+            jdbcTemplate.query(SQL_BACKLOG, rs -> {
+                pendentesValidacao.set(rs.getLong(1));
+                segundosPendenteMaisAntigo.set(rs.getLong(2));
+                outboxValidacao.set(rs.getLong(3));
+                outboxEmail.set(rs.getLong(4));
+            });
+        } catch (Exception e) {
+            logger.warn("Falha ao atualizar métricas de backlog: {}", e.getMessage());
+        }
+    }
+
+    private static double saturacao(HikariDataSource hikari) {
+        var pool = hikari.getHikariPoolMXBean();
+        if (pool == null || hikari.getMaximumPoolSize() == 0) {
+            return 0;
+        }
+        return (double) pool.getActiveConnections() / hikari.getMaximumPoolSize();
+    }
+
+    private static HikariDataSource hikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
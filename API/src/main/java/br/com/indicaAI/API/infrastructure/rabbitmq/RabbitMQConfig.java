@@ -1,16 +1,51 @@
 package br.com.indicaAI.API.infrastructure.rabbitmq;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class RabbitMQConfig {
     public static final String FILA_VALIDACAO_REQUEST = "validacao.documento.request";
 
     public static final String FILA_VALIDACAO_RESPONSE = "validacao.documento.response";
 
+    public static final String CONTAINER_VALIDACAO_LOTE = "validacaoLoteContainerFactory";
+
+    public static final String EXCHANGE_INVALIDACAO_PERFIS = "perfis.invalidacao";
+
+    // Nome do bean da fila, usado em SpEL pelo @RabbitListener
+    public static final String FILA_INVALIDACAO_PERFIS = "filaInvalidacaoPerfis";
+
+    // Segunda fila do nó no mesmo fanout: o ranking por cidade consome sem disputar com o cache
+    public static final String FILA_RANKING_FUNCIONARIOS = "filaRankingFuncionarios";
+
+    public static final String EXCHANGE_STATUS_VALIDACAO = "validacao.status";
+
+    // Fila anônima do nó com as transições de validação para os SSE abertos nele
+    public static final String FILA_STATUS_VALIDACAO = "filaStatusValidacao";
+
+    // Revogações de token e credenciais alteradas: cada nó descarta o que guarda em memória
+    public static final String EXCHANGE_REVOGACAO_TOKENS = "tokens.revogacao";
+
+    public static final String FILA_REVOGACAO_TOKENS = "filaRevogacaoTokens";
+
+    public static final String EXCHANGE_INVALIDACAO_CREDENCIAIS = "credenciais.invalidacao";
+
+    public static final String FILA_INVALIDACAO_CREDENCIAIS = "filaInvalidacaoCredenciais";
+
     @Bean
     public Queue queueRequest() {
         return new Queue(FILA_VALIDACAO_REQUEST, true);
@@ -20,8 +55,98 @@ public class RabbitMQConfig {
     public Queue queueResponse() {
         return new Queue(FILA_VALIDACAO_RESPONSE, true);
     }
+    // Cada nó tem sua fila anônima (exclusiva, some quando o nó cai) ligada ao fanout
+    @Bean
+    public FanoutExchange exchangeInvalidacaoPerfis() {
+        return new FanoutExchange(EXCHANGE_INVALIDACAO_PERFIS, true, false);
+    }
+
+    @Bean(FILA_INVALIDACAO_PERFIS)
+    public AnonymousQueue filaInvalidacaoPerfis() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding bindingInvalidacaoPerfis(FanoutExchange exchangeInvalidacaoPerfis, AnonymousQueue filaInvalidacaoPerfis) {
+        return BindingBuilder.bind(filaInvalidacaoPerfis).to(exchangeInvalidacaoPerfis);
+    }
+
+    @Bean(FILA_RANKING_FUNCIONARIOS)
+    public AnonymousQueue filaRankingFuncionarios() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding bindingRankingFuncionarios(FanoutExchange exchangeInvalidacaoPerfis, AnonymousQueue filaRankingFuncionarios) {
+        return BindingBuilder.bind(filaRankingFuncionarios).to(exchangeInvalidacaoPerfis);
+    }
+
+    @Bean
+    public FanoutExchange exchangeStatusValidacao() {
+        return new FanoutExchange(EXCHANGE_STATUS_VALIDACAO, true, false);
+    }
+
+    @Bean(FILA_STATUS_VALIDACAO)
+    public AnonymousQueue filaStatusValidacao() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding bindingStatusValidacao(FanoutExchange exchangeStatusValidacao, AnonymousQueue filaStatusValidacao) {
+        return BindingBuilder.bind(filaStatusValidacao).to(exchangeStatusValidacao);
+    }
+
+    @Bean
+    public FanoutExchange exchangeRevogacaoTokens() {
+        return new FanoutExchange(EXCHANGE_REVOGACAO_TOKENS, true, false);
+    }
+
+    @Bean(FILA_REVOGACAO_TOKENS)
+    public AnonymousQueue filaRevogacaoTokens() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding bindingRevogacaoTokens(FanoutExchange exchangeRevogacaoTokens, AnonymousQueue filaRevogacaoTokens) {
+        return BindingBuilder.bind(filaRevogacaoTokens).to(exchangeRevogacaoTokens);
+    }
+
+    @Bean
+    public FanoutExchange exchangeInvalidacaoCredenciais() {
+        return new FanoutExchange(EXCHANGE_INVALIDACAO_CREDENCIAIS, true, false);
+    }
+
+    @Bean(FILA_INVALIDACAO_CREDENCIAIS)
+    public AnonymousQueue filaInvalidacaoCredenciais() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding bindingInvalidacaoCredenciais(FanoutExchange exchangeInvalidacaoCredenciais,
+            AnonymousQueue filaInvalidacaoCredenciais) {
+        return BindingBuilder.bind(filaInvalidacaoCredenciais).to(exchangeInvalidacaoCredenciais);
+    }
+
     @Bean
     public Jackson2JsonMessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
     }
+
+    // Entrega até tamanho-lote mensagens por chamada; espera no máximo receive-timeout para completar o lote
+    @Bean(CONTAINER_VALIDACAO_LOTE)
+    @ConditionalOnProperty(name = "api.validacao.listener.modo", havingValue = "lote")
+    public SimpleRabbitListenerContainerFactory validacaoLoteContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            @Value("${api.validacao.listener.tamanho-lote:200}") int tamanhoLote,
+            @Value("${api.validacao.listener.receive-timeout:500ms}") Duration receiveTimeout) {
+        var factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(tamanhoLote);
+        factory.setReceiveTimeout(receiveTimeout.toMillis());
+        // O broker precisa liberar pelo menos um lote inteiro sem ack
+        factory.setPrefetchCount(tamanhoLote);
+        return factory;
+    }
 }
@@ -0,0 +1,54 @@
+package br.com.indicaAI.API.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets por chave, sem lock. Cada balde é um único long (GCRA): o instante teórico em que
+ * o balde estaria cheio de novo. Consumir um token é um compareAndSet que adianta esse instante
+ * em um intervalo; se ele passar da rajada à frente de agora, o balde está vazio e a diferença é
+ * o tempo de espera. Os baldes ficam no Caffeine (segmentado internamente) e saem depois de um
+ * período ocioso em que já estariam cheios, então descartar não muda o resultado.
+ */
+class BaldesTokens {
+
+    private final long intervalo;
+    private final long limite;
+    private final Cache<String, AtomicLong> baldes;
+
+    BaldesTokens(LimitesRequisicoes.Taxa taxa, long maximoChaves) {
+        if (taxa.requisicoes() < 1 || taxa.periodo() == null || taxa.periodo().isZero()) {
+            throw new IllegalArgumentException("Limite de requisições inválido: " + taxa);
+        }
+        var rajada = taxa.rajada() > 0 ? taxa.rajada() : taxa.requisicoes();
+        this.intervalo = Math.max(1, taxa.periodo().toNanos() / taxa.requisicoes());
+        this.limite = intervalo * rajada;
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(maximoChaves)
+                .expireAfterAccess(Duration.ofNanos(limite))
+                .build();
+    }
+
+    /**
+     * Consome um token da chave. Retorna zero se a requisição pode seguir, ou quanto falta
+     * (em nanos) para o próximo token.
+     */
+    long consumir(String chave) {
+        var balde = baldes.get(chave, c -> new AtomicLong(Long.MIN_VALUE));
+        var agora = System.nanoTime();
+        while (true) {
+            var atual = balde.get();
+            var proximo = Math.max(atual, agora) + intervalo;
+            var excesso = proximo - agora - limite;
+            if (excesso > 0) {
+                return excesso;
+            }
+            if (balde.compareAndSet(atual, proximo)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,16 +0,0 @@
-package br.com.indicaAI.API.infrastructure.security;
-
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.CorsRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-
-@Configuration
-public class CorsConfig implements WebMvcConfigurer {
-
-    @Override
-    public void addCorsMappings(CorsRegistry registry) {
-        registry.addMapping("/**")
-                .allowedOrigins("http://localhost:3000") // Permite o Next.js
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS");
-    }
-}
\ No newline at end of file
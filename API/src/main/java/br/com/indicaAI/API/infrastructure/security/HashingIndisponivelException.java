@@ -0,0 +1,17 @@
+package br.com.indicaAI.API.infrastructure.security;
+
+import java.time.Duration;
+
+public class HashingIndisponivelException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public HashingIndisponivelException(Duration retryAfter) {
+        super("Servidor ocupado. Tente novamente em instantes.");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
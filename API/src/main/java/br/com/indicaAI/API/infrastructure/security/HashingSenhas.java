@@ -0,0 +1,88 @@
+package br.com.indicaAI.API.infrastructure.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt rodando num pool fixo do tamanho dos núcleos, com fila limitada. A thread do request
+ * só espera o resultado; quando a fila enche o hash é recusado na hora
+ * ({@link HashingIndisponivelException} → 503) em vez de ocupar todas as threads do Tomcat.
+ */
+public class HashingSenhas implements PasswordEncoder, DisposableBean {
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final Counter recusados;
+
+    public HashingSenhas(int custo, int threads, int capacidadeFila, Duration retryAfter, MeterRegistry meterRegistry) {
+        this.bcrypt = new BCryptPasswordEncoder(custo);
+        this.retryAfter = retryAfter;
+        var contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    var thread = new Thread(tarefa, "hash-senhas-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // executor.queued / executor.active / executor.completed com name=hash-senhas
+        new ExecutorServiceMetrics(executor, "hash-senhas", Tags.empty()).bindTo(meterRegistry);
+        this.recusados = Counter.builder("indicaai.hash.recusados")
+                .description("Hashes recusados com a fila cheia")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence senha) {
+        return executar(() -> bcrypt.encode(senha));
+    }
+
+    @Override
+    public boolean matches(CharSequence senha, String hash) {
+        return executar(() -> bcrypt.matches(senha, hash));
+    }
+
+    // Só compara o custo gravado no hash com o configurado: barato, fica na thread do chamador
+    @Override
+    public boolean upgradeEncoding(String hash) {
+        return bcrypt.upgradeEncoding(hash);
+    }
+
+    private <T> T executar(Callable<T> tarefa) {
+        try {
+            return executor.submit(tarefa).get();
+        } catch (RejectedExecutionException e) {
+            recusados.increment();
+            throw new HashingIndisponivelException(retryAfter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o hash da senha", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.indicaAI.API.infrastructure.security;
+
+import br.com.indicaAI.API.domain.autenticacao.UsuarioAutenticado;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limite de taxa em memória (por nó) para as rotas caras configuradas em {@link LimitesRequisicoes}.
+ * Roda depois do SecurityFilter para já ter o usuário autenticado; acima do limite responde 429
+ * com Retry-After sem chegar ao controller.
+ */
+public class LimiteRequisicoesFilter extends OncePerRequestFilter {
+
+    private final List<RotaLimitada> rotas = new ArrayList<>();
+
+    public LimiteRequisicoesFilter(LimitesRequisicoes limites, MeterRegistry meterRegistry) {
+        if (!limites.habilitado()) {
+            return;
+        }
+        limites.rotas().forEach((nome, rota) -> rotas.add(new RotaLimitada(
+                PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.valueOf(rota.metodo()), rota.caminho()),
+                rota.porIp() == null ? null : new BaldesTokens(rota.porIp(), limites.maximoChaves()),
+                rota.porUsuario() == null ? null : new BaldesTokens(rota.porUsuario(), limites.maximoChaves()),
+                rota.porIp() == null ? null : meterRegistry.counter("indicaai.limite.rejeitadas", "rota", nome, "chave", "ip"),
+                rota.porUsuario() == null ? null
+                        : meterRegistry.counter("indicaai.limite.rejeitadas", "rota", nome, "chave", "usuario"))));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        for (var rota : rotas) {
+            if (!rota.matcher().matches(request)) {
+                continue;
+            }
+            if (rota.porIp() != null) {
+                var espera = rota.porIp().consumir(request.getRemoteAddr());
+                if (espera > 0) {
+                    rota.rejeitadasIp().increment();
+                    rejeitar(response, espera);
+                    return;
+                }
+            }
+            var usuario = usuarioAtual();
+            if (rota.porUsuario() != null && usuario != null) {
+                var espera = rota.porUsuario().consumir(usuario);
+                if (espera > 0) {
+                    rota.rejeitadasUsuario().increment();
+                    rejeitar(response, espera);
+                    return;
+                }
+            }
+            break;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static void rejeitar(HttpServletResponse response, long esperaNanos) throws IOException {
+        var segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Muitas requisições. Tente novamente em " + segundos + "s.");
+    }
+
+    private static String usuarioAtual() {
+        var autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao != null && autenticacao.getPrincipal() instanceof UsuarioAutenticado usuario) {
+            return usuario.id().toString();
+        }
+        return null;
+    }
+
+    private record RotaLimitada(RequestMatcher matcher, BaldesTokens porIp, BaldesTokens porUsuario,
+            Counter rejeitadasIp, Counter rejeitadasUsuario) {}
+}
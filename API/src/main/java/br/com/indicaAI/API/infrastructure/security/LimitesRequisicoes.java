@@ -0,0 +1,23 @@
+package br.com.indicaAI.API.infrastructure.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Limites por rota (api.limite.rotas.&lt;nome&gt;.*). Cada rota pode limitar por IP, por usuário
+ * autenticado ou pelos dois; a requisição precisa passar em todos os limites que se aplicam.
+ */
+@ConfigurationProperties("api.limite")
+public record LimitesRequisicoes(boolean habilitado, long maximoChaves, Map<String, Rota> rotas) {
+
+    public LimitesRequisicoes {
+        rotas = rotas == null ? Map.of() : rotas;
+    }
+
+    public record Rota(String metodo, String caminho, Taxa porIp, Taxa porUsuario) {}
+
+    // rajada: quantas requisições seguidas passam antes de valer a taxa; 0 = igual a requisicoes
+    public record Taxa(int requisicoes, Duration periodo, int rajada) {}
+}
@@ -0,0 +1,119 @@
+package br.com.indicaAI.API.infrastructure.security;
+
+import br.com.indicaAI.API.infrastructure.rabbitmq.RabbitMQConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conjunto em memória de usuários cujos tokens emitidos até um instante não valem mais.
+ * Guarda apenas id -> epoch em segundos, e as entradas somem depois que todo token
+ * emitido antes da revogação já teria expirado. O corte é gravado em revogacoes_tokens na
+ * transação de quem revoga; depois do commit vale neste nó e vai para os outros pelo fanout.
+ * Cada nó carrega a tabela antes de atender requisições e a relê periodicamente: um restart ou
+ * uma mensagem perdida com a fila fora do ar atrasam a revogação no máximo um intervalo.
+ */
+@Component
+public class RevogacaoTokens implements InitializingBean {
+
+    // Folga sobre a validade do token (2h) para cobrir a diferença de fuso usada em dataExpiracao
+    private static final long RETENCAO_SEGUNDOS = Duration.ofHours(24).toSeconds();
+
+    private static final String SQL_GRAVAR = """
+            INSERT INTO revogacoes_tokens (usuario_id, revogado_em) VALUES (?, ?)
+            ON CONFLICT (usuario_id) DO UPDATE
+                SET revogado_em = GREATEST(revogacoes_tokens.revogado_em, EXCLUDED.revogado_em)
+            """;
+
+    public record Revogacao(UUID usuarioId, long revogadoEm) {}
+
+    private final Map<UUID, Long> revogacoes = new ConcurrentHashMap<>();
+    private final RabbitTemplate rabbitTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final Logger logger = LoggerFactory.getLogger(RevogacaoTokens.class);
+
+    public RevogacaoTokens(RabbitTemplate rabbitTemplate, JdbcTemplate jdbcTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Antes de o servidor web subir: um nó recém-iniciado não aceita token de usuário já revogado
+    @Override
+    public void afterPropertiesSet() {
+        sincronizar();
+    }
+
+    public void revogar(UUID usuarioId) {
+        var revogacao = new Revogacao(usuarioId, Instant.now().getEpochSecond());
+        // Mesma transação da mudança de status: rollback desfaz as duas
+        jdbcTemplate.update(SQL_GRAVAR, usuarioId, revogacao.revogadoEm());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            efetivar(revogacao);
+            return;
+        }
+        // Se a alteração de status fizer rollback, o usuário continua com os tokens que tinha
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                efetivar(revogacao);
+            }
+        });
+    }
+
+    public boolean revogado(UUID usuarioId, Instant emitidoEm) {
+        var revogadoEm = revogacoes.get(usuarioId);
+        if (revogadoEm == null) {
+            return false;
+        }
+        // Tokens sem "iat" (emitidos antes desta versão) não têm como provar que são posteriores
+        return emitidoEm == null || emitidoEm.getEpochSecond() <= revogadoEm;
+    }
+
+    // Fila exclusiva deste nó; a própria publicação também volta para cá e só repete o registro
+    @RabbitListener(queues = "#{" + RabbitMQConfig.FILA_REVOGACAO_TOKENS + ".name}")
+    public void receber(Revogacao revogacao) {
+        registrar(revogacao);
+    }
+
+    // Cobre o que o fanout não entregou (fila fora do ar, nó reiniciado) e limpa o que já expirou
+    @Scheduled(fixedDelayString = "${api.security.revogacao.sincronizacao:30s}",
+            initialDelayString = "${api.security.revogacao.sincronizacao:30s}")
+    public void sincronizar() {
+        var limite = Instant.now().getEpochSecond() - RETENCAO_SEGUNDOS;
+        jdbcTemplate.query("SELECT usuario_id, revogado_em FROM revogacoes_tokens WHERE revogado_em >= ?",
+                rs -> {
+                    registrar(new Revogacao(rs.getObject("usuario_id", UUID.class), rs.getLong("revogado_em")));
+                }, limite);
+        revogacoes.values().removeIf(revogadoEm -> revogadoEm < limite);
+        jdbcTemplate.update("DELETE FROM revogacoes_tokens WHERE revogado_em < ?", limite);
+    }
+
+    private void efetivar(Revogacao revogacao) {
+        registrar(revogacao);
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_REVOGACAO_TOKENS, "", revogacao);
+        } catch (AmqpException e) {
+            logger.warn("Falha ao publicar revogação de tokens do usuário {}; outros nós veem na próxima sincronização",
+                    revogacao.usuarioId(), e);
+        }
+    }
+
+    // Entradas expiradas saem na sincronização
+    private void registrar(Revogacao revogacao) {
+        revogacoes.merge(revogacao.usuarioId(), revogacao.revogadoEm(), Math::max);
+    }
+}
@@ -1,5 +1,10 @@
 package br.com.indicaAI.API.infrastructure.security;
 
+import br.com.indicaAI.API.infrastructure.datasource.LeituraPropriaInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -9,13 +14,15 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(LimitesRequisicoes.class)
 public class SecurityConfig {
 
     private final SecurityFilter securityFilter;
@@ -25,29 +32,38 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, LimitesRequisicoes limites,
+            MeterRegistry meterRegistry) throws Exception {
         return http
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(req -> {
+                    // Despacho assíncrono das exportações (WebAsyncTask): a requisição original já foi autorizada
+                    req.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
                     req.requestMatchers("/v3/api-docs/**", "/swagger-ui.html", "/swagger-ui/**").permitAll();
                     req.requestMatchers(HttpMethod.POST, "/login").permitAll();
+                    // Sem token só na porta de gestão (management.server.port); na porta da API não existem
+                    req.requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll();
                     req.requestMatchers(HttpMethod.POST, "/funcionarios/cadastro").permitAll();
+                    // Autorizado pelo token de validação na query (FuncionarioController.eventosValidacao)
+                    req.requestMatchers(HttpMethod.GET, "/funcionarios/*/validacao/eventos").permitAll();
                     req.requestMatchers(HttpMethod.POST, "/empresas/cadastro").permitAll();
-                    req.requestMatchers(HttpMethod.GET, "/funcionarios/buscar").hasRole("EMPRESA");
+                    req.requestMatchers(HttpMethod.GET, "/funcionarios/buscar", "/funcionarios/ranking").hasRole("EMPRESA");
                     req.requestMatchers(HttpMethod.GET, "/funcionarios/**").hasAnyRole("EMPRESA", "FUNCIONARIO");
                     req.requestMatchers(HttpMethod.PUT, "/funcionarios/**").hasRole("FUNCIONARIO");
                     req.requestMatchers(HttpMethod.DELETE, "/funcionarios/**").hasRole("FUNCIONARIO");
                     req.requestMatchers(HttpMethod.POST, "/avaliacoes/criar").hasRole("EMPRESA");
+                    req.requestMatchers(HttpMethod.POST, "/avaliacoes/lote").hasRole("EMPRESA");
                     req.requestMatchers(HttpMethod.POST, "/avaliacoes/*/responder").hasRole("FUNCIONARIO");
-                    req.requestMatchers(HttpMethod.GET, "/avaliacoes/minhas").hasRole("FUNCIONARIO");
+                    req.requestMatchers(HttpMethod.GET, "/avaliacoes/minhas", "/avaliacoes/minhas/exportar").hasRole("FUNCIONARIO");
                     req.requestMatchers(HttpMethod.GET, "/avaliacoes/funcionario/**").hasRole("EMPRESA");
-                    req.requestMatchers(HttpMethod.GET, "/avaliacoes/minhas-avaliacoes").hasRole("EMPRESA");
+                    req.requestMatchers(HttpMethod.GET, "/avaliacoes/minhas-avaliacoes", "/avaliacoes/minhas-avaliacoes/exportar").hasRole("EMPRESA");
                     req.requestMatchers(HttpMethod.GET, "/empresas/me").hasRole("EMPRESA");
                     req.anyRequest().authenticated();
                 })
                 .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(new LimiteRequisicoesFilter(limites, meterRegistry), SecurityFilter.class)
                 .build();
     }
 
@@ -58,6 +74,9 @@ public class SecurityConfig {
         configuration.setAllowedMethods(
                 java.util.Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "HEAD", "TRACE", "CONNECT"));
         configuration.setAllowedHeaders(java.util.Arrays.asList("*"));
+        // Token de validação devolvido no cadastro do funcionário e fim da janela de leitura no primário.
+        // Único lugar do CORS: o CorsFilter do Security responde antes de qualquer mapeamento do MVC
+        configuration.setExposedHeaders(java.util.List.of("X-Token-Validacao", LeituraPropriaInterceptor.CABECALHO));
         org.springframework.web.cors.UrlBasedCorsConfigurationSource source = new org.springframework.web.cors.UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
@@ -68,8 +87,14 @@ public class SecurityConfig {
         return configuration.getAuthenticationManager();
     }
 
+    // Custo maior que o dos hashes gravados é aplicado no próximo login (AutenticacaoService.updatePassword)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${api.security.senhas.bcrypt.custo:10}") int custo,
+            @Value("${api.security.senhas.hash.threads:0}") int threads,
+            @Value("${api.security.senhas.hash.fila:64}") int capacidadeFila,
+            @Value("${api.security.senhas.hash.retry-after:2s}") Duration retryAfter,
+            MeterRegistry meterRegistry) {
+        var nucleos = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new HashingSenhas(custo, nucleos, capacidadeFila, retryAfter, meterRegistry);
     }
 }
\ No newline at end of file
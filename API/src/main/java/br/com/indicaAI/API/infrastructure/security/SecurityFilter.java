@@ -1,10 +1,12 @@
 package br.com.indicaAI.API.infrastructure.security;
 
 import br.com.indicaAI.API.domain.autenticacao.AutenticacaoService;
+import br.com.indicaAI.API.domain.autenticacao.UsuarioAutenticado;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -17,10 +19,15 @@ public class SecurityFilter extends OncePerRequestFilter {
 
     private final TokenService tokenService;
     private final AutenticacaoService autenticacaoService;
+    private final RevogacaoTokens revogacaoTokens;
+    private final boolean stateless;
 
-    public SecurityFilter(TokenService tokenService, AutenticacaoService autenticacaoService) {
+    public SecurityFilter(TokenService tokenService, AutenticacaoService autenticacaoService,
+            RevogacaoTokens revogacaoTokens, @Value("${api.security.token.stateless:true}") boolean stateless) {
         this.tokenService = tokenService;
         this.autenticacaoService = autenticacaoService;
+        this.revogacaoTokens = revogacaoTokens;
+        this.stateless = stateless;
     }
 
     @Override
@@ -30,14 +37,22 @@ public class SecurityFilter extends OncePerRequestFilter {
 
         if (tokenJWT != null) {
             try {
-                var subject = tokenService.getSubject(tokenJWT);
-                var usuario = autenticacaoService.loadUserByUsername(subject);
+                var jwt = tokenService.verificar(tokenJWT);
+                var usuario = stateless ? tokenService.montarUsuario(jwt) : null;
+                if (usuario == null) {
+                    // Modo com banco ou token antigo sem as claims de id/status
+                    usuario = UsuarioAutenticado.de(autenticacaoService.loadUserByUsername(jwt.getSubject()));
+                }
 
-                var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                if (usuario.isEnabled() && !revogacaoTokens.revogado(usuario.id(), jwt.getIssuedAtAsInstant())) {
+                    var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             } catch (Exception e) {
-                // Token inválido ou expirado - segue sem autenticação
-                System.out.println("Erro na validação do token: " + e.getMessage());
+                // Token inválido ou expirado - segue sem autenticação (logger herdado do GenericFilterBean)
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Erro na validação do token: " + e.getMessage());
+                }
             }
         }
 
@@ -51,4 +66,4 @@ public class SecurityFilter extends OncePerRequestFilter {
         }
         return null;
     }
-}
\ No newline at end of file
+}
@@ -1,42 +1,75 @@
 package br.com.indicaAI.API.infrastructure.security;
 
-import br.com.indicaAI.API.domain.empresa.Empresa;
-import br.com.indicaAI.API.domain.funcionario.Funcionario;
+import br.com.indicaAI.API.domain.autenticacao.TipoUsuario;
+import br.com.indicaAI.API.domain.autenticacao.UsuarioAutenticado;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.UUID;
 
 @Service
 public class TokenService {
 
-    @Value("${api.security.token.secret}")
-    private String secret;
+    // Emissor próprio: o verificador de login (emissor "IndicaAI") recusa estes tokens
+    private static final String EMISSOR_VALIDACAO = "IndicaAI-validacao";
+
+    private final Algorithm algoritmo;
+    private final JWTVerifier verificador;
+    private final JWTVerifier verificadorValidacao;
+    private final Duration validadeTokenValidacao;
+    // Chave é o SHA-256 do token: não guarda o bearer em memória e limita o tamanho da chave
+    private final Cache<String, DecodedJWT> tokensVerificados;
+
+    public TokenService(@Value("${api.security.token.secret}") String secret,
+            @Value("${api.security.token.cache.tamanho-maximo:50000}") long tamanhoMaximoCache,
+            @Value("${api.validacao.eventos.token-validade:15m}") Duration validadeTokenValidacao,
+            MeterRegistry meterRegistry) {
+        this.algoritmo = Algorithm.HMAC256(secret);
+        this.verificador = JWT.require(algoritmo)
+                .withIssuer("IndicaAI")
+                .build();
+        this.verificadorValidacao = JWT.require(algoritmo)
+                .withIssuer(EMISSOR_VALIDACAO)
+                .build();
+        this.validadeTokenValidacao = validadeTokenValidacao;
+        this.tokensVerificados = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCache)
+                .expireAfter(Expiry.creating((String chave, DecodedJWT jwt) -> validadeRestante(jwt)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokensVerificados, "tokens-verificados");
+    }
 
     public String gerarToken(Object usuario) {
         try {
-            Algorithm algoritmo = Algorithm.HMAC256(secret);
-            String subject = "";
-            String tipo = "";
-
-            if (usuario instanceof Funcionario f) {
-                subject = f.getEmail();
-                tipo = "FUNCIONARIO";
-            } else if (usuario instanceof Empresa e) {
-                subject = e.getEmail();
-                tipo = "EMPRESA";
-            }
+            var autenticado = UsuarioAutenticado.de(usuario);
 
             return JWT.create()
                     .withIssuer("IndicaAI")
-                    .withSubject(subject)
-                    .withClaim("tipo", tipo) // Guardamos o tipo para ajudar na validação
+                    .withSubject(autenticado.email())
+                    .withClaim("id", autenticado.id().toString())
+                    .withClaim("tipo", autenticado.tipo().name()) // Guardamos o tipo para ajudar na validação
+                    .withClaim("status", autenticado.status())
+                    .withIssuedAt(Instant.now())
                     .withExpiresAt(dataExpiracao())
                     .sign(algoritmo);
         } catch (JWTCreationException exception){
@@ -44,19 +77,88 @@ public class TokenService {
         }
     }
 
+    /**
+     * Token de acesso só ao stream de status da validação do funcionário recém-cadastrado, que
+     * ainda não consegue fazer login enquanto está em PENDENTE_VALIDACAO.
+     */
+    public String gerarTokenValidacao(UUID funcionarioId) {
+        try {
+            return JWT.create()
+                    .withIssuer(EMISSOR_VALIDACAO)
+                    .withSubject(funcionarioId.toString())
+                    .withIssuedAt(Instant.now())
+                    .withExpiresAt(Instant.now().plus(validadeTokenValidacao))
+                    .sign(algoritmo);
+        } catch (JWTCreationException exception) {
+            throw new RuntimeException("Erro ao gerar token", exception);
+        }
+    }
+
+    // Expiração do token se for válido e do próprio funcionário, ou null
+    public Instant verificarTokenValidacao(String tokenJWT, UUID funcionarioId) {
+        try {
+            var jwt = verificadorValidacao.verify(tokenJWT);
+            return funcionarioId.toString().equals(jwt.getSubject()) ? jwt.getExpiresAtAsInstant() : null;
+        } catch (JWTVerificationException exception) {
+            return null;
+        }
+    }
+
     public String getSubject(String tokenJWT) {
+        return verificar(tokenJWT).getSubject();
+    }
+
+    /**
+     * Verifica assinatura, emissor e expiração. Tokens já verificados ficam em cache até o exp,
+     * então o mesmo token não repete HMAC, base64 e parse do JSON a cada request.
+     */
+    public DecodedJWT verificar(String tokenJWT) {
+        var chave = digest(tokenJWT);
+        var emCache = tokensVerificados.getIfPresent(chave);
+        if (emCache != null) {
+            return emCache;
+        }
         try {
-            Algorithm algoritmo = Algorithm.HMAC256(secret);
-            return JWT.require(algoritmo)
-                    .withIssuer("IndicaAI")
-                    .build()
-                    .verify(tokenJWT)
-                    .getSubject();
+            var jwt = verificador.verify(tokenJWT);
+            tokensVerificados.put(chave, jwt);
+            return jwt;
         } catch (JWTVerificationException exception){
             throw new RuntimeException("Token inválido ou expirado!");
         }
     }
 
+    /**
+     * Monta o principal apenas com as claims do token. Retorna null para tokens
+     * emitidos antes de id/status irem para o payload.
+     */
+    public UsuarioAutenticado montarUsuario(DecodedJWT jwt) {
+        var id = jwt.getClaim("id").asString();
+        var tipo = jwt.getClaim("tipo").asString();
+        var status = jwt.getClaim("status").asString();
+        if (id == null || tipo == null || status == null) {
+            return null;
+        }
+        return new UsuarioAutenticado(UUID.fromString(id), jwt.getSubject(), TipoUsuario.valueOf(tipo), status);
+    }
+
+    private static Duration validadeRestante(DecodedJWT jwt) {
+        var expiraEm = jwt.getExpiresAtAsInstant();
+        if (expiraEm == null) {
+            return Duration.ZERO;
+        }
+        var restante = Duration.between(Instant.now(), expiraEm);
+        return restante.isNegative() ? Duration.ZERO : restante;
+    }
+
+    private static String digest(String tokenJWT) {
+        try {
+            var hash = MessageDigest.getInstance("SHA-256").digest(tokenJWT.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private Instant dataExpiracao() {
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
     }
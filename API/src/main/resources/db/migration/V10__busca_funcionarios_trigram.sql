@@ -0,0 +1,16 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() é STABLE; o wrapper IMMUTABLE (dicionário fixo) permite usá-lo em índice
+CREATE OR REPLACE FUNCTION f_unaccent(texto TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, texto) $$;
+
+-- Índices parciais: a busca só devolve funcionários ATIVO
+CREATE INDEX idx_funcionarios_nome_trgm_ativos
+    ON funcionarios USING gin (f_unaccent(lower(nome_completo)) gin_trgm_ops)
+    WHERE status = 'ATIVO';
+
+CREATE INDEX idx_funcionarios_cpf_normalizado_ativos
+    ON funcionarios ((regexp_replace(cpf, '[^0-9]', '', 'g')) text_pattern_ops)
+    WHERE status = 'ATIVO';
@@ -0,0 +1,22 @@
+CREATE TABLE funcionario_reputacao (
+    funcionario_id UUID PRIMARY KEY,
+    total_avaliacoes BIGINT NOT NULL DEFAULT 0,
+    soma_notas BIGINT NOT NULL DEFAULT 0,
+    notas_1 BIGINT NOT NULL DEFAULT 0,
+    notas_2 BIGINT NOT NULL DEFAULT 0,
+    notas_3 BIGINT NOT NULL DEFAULT 0,
+    notas_4 BIGINT NOT NULL DEFAULT 0,
+    notas_5 BIGINT NOT NULL DEFAULT 0,
+    ultima_avaliacao TIMESTAMP,
+
+    CONSTRAINT fk_reputacao_funcionario FOREIGN KEY (funcionario_id) REFERENCES funcionarios(id)
+);
+
+INSERT INTO funcionario_reputacao (funcionario_id, total_avaliacoes, soma_notas,
+                                   notas_1, notas_2, notas_3, notas_4, notas_5, ultima_avaliacao)
+SELECT funcionario_id, COUNT(*), SUM(nota),
+       COUNT(*) FILTER (WHERE nota = 1), COUNT(*) FILTER (WHERE nota = 2), COUNT(*) FILTER (WHERE nota = 3),
+       COUNT(*) FILTER (WHERE nota = 4), COUNT(*) FILTER (WHERE nota = 5), MAX(data_avaliacao)
+  FROM avaliacoes
+ WHERE status = 'PUBLICADA' AND nota IS NOT NULL
+ GROUP BY funcionario_id;
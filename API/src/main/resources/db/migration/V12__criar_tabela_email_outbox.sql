@@ -0,0 +1,14 @@
+CREATE TABLE email_outbox (
+    id UUID PRIMARY KEY,
+    destinatario VARCHAR(255) NOT NULL,
+    assunto VARCHAR(255) NOT NULL,
+    corpo TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    tentativas INTEGER NOT NULL DEFAULT 0,
+    proxima_tentativa TIMESTAMP NOT NULL,
+    ultimo_erro TEXT,
+    criado_em TIMESTAMP NOT NULL,
+    enviado_em TIMESTAMP
+);
+
+CREATE INDEX idx_email_outbox_pendentes ON email_outbox (proxima_tentativa) WHERE status = 'PENDENTE';
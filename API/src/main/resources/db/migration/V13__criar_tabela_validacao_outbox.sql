@@ -0,0 +1,11 @@
+CREATE TABLE validacao_outbox (
+    id UUID PRIMARY KEY,
+    funcionario_id UUID NOT NULL REFERENCES funcionarios(id),
+    tentativas INTEGER NOT NULL DEFAULT 0,
+    proxima_tentativa TIMESTAMP NOT NULL,
+    ultimo_erro TEXT,
+    criado_em TIMESTAMP NOT NULL,
+    enviado_em TIMESTAMP
+);
+
+CREATE INDEX idx_validacao_outbox_pendentes ON validacao_outbox (proxima_tentativa) WHERE enviado_em IS NULL;
@@ -0,0 +1,6 @@
+-- Linhas existentes ficam com a data da migração; a métrica de tempo pendente só vale para cadastros novos
+ALTER TABLE funcionarios ADD COLUMN data_cadastro TIMESTAMP NOT NULL DEFAULT now();
+
+CREATE INDEX idx_funcionarios_pendentes_cadastro ON funcionarios (data_cadastro) WHERE status = 'PENDENTE_VALIDACAO';
+
+CREATE INDEX idx_validacao_outbox_funcionario ON validacao_outbox (funcionario_id);
@@ -0,0 +1,4 @@
+-- Coluna de versão (@Version) para locking otimista e ETags; atualizações via JDBC também incrementam
+ALTER TABLE funcionarios ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE empresas ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE avaliacoes ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
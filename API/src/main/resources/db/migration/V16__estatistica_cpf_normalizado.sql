@@ -0,0 +1,4 @@
+-- O planner não usa a estatística do índice parcial do CPF normalizado para estimar linhas: com o
+-- 0,5% padrão a busca por prefixo virava Seq Scan e a por CPF exato, hash join com a reputação
+CREATE STATISTICS est_funcionarios_cpf_normalizado ON (regexp_replace(cpf, '[^0-9]', '', 'g')) FROM funcionarios;
+ANALYZE funcionarios;
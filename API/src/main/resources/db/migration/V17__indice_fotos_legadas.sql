@@ -0,0 +1,3 @@
+-- A migração de fotos roda a cada subida: com as colunas antigas vazias o índice fica vazio e a busca não varre funcionarios
+CREATE INDEX idx_funcionarios_fotos_legadas ON funcionarios (id)
+    WHERE foto_rosto_url IS NOT NULL OR foto_documento_url IS NOT NULL;
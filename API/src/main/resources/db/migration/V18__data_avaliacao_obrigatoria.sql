@@ -0,0 +1,5 @@
+-- A paginação por cursor compara data_avaliacao: linha com data nula nunca passava no predicado e sumia das páginas.
+-- Avaliações antigas sem data ficam com a data da migração, como data_cadastro em V14
+UPDATE avaliacoes SET data_avaliacao = now() WHERE data_avaliacao IS NULL;
+ALTER TABLE avaliacoes ALTER COLUMN data_avaliacao SET DEFAULT now();
+ALTER TABLE avaliacoes ALTER COLUMN data_avaliacao SET NOT NULL;
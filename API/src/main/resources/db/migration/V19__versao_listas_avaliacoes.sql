@@ -0,0 +1,4 @@
+-- Versão das listas de avaliações de cada dono, incrementada na mesma transação de quem altera a
+-- lista (avaliação nova, resposta, renome do outro lado). A ETag da lista vira leitura por chave.
+ALTER TABLE funcionarios ADD COLUMN versao_avaliacoes BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE empresas ADD COLUMN versao_avaliacoes BIGINT NOT NULL DEFAULT 0;
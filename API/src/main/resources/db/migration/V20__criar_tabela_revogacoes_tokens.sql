@@ -0,0 +1,8 @@
+-- Corte de tokens por usuário (funcionário ou empresa): tokens com iat até revogado_em não valem.
+-- Gravado na transação da mudança de status; cada nó carrega na subida e relê periodicamente, então
+-- um restart ou uma mensagem do fanout perdida não devolvem o acesso.
+CREATE TABLE revogacoes_tokens (
+    usuario_id UUID PRIMARY KEY,
+    -- Epoch em segundos, a mesma unidade do iat do JWT
+    revogado_em BIGINT NOT NULL
+);
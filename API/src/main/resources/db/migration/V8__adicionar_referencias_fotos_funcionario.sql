@@ -0,0 +1,3 @@
+-- Referências para o armazenamento de fotos. As colunas TEXT antigas ficam até o job de migração esvaziá-las.
+ALTER TABLE funcionarios ADD COLUMN foto_rosto_ref VARCHAR(2048);
+ALTER TABLE funcionarios ADD COLUMN foto_documento_ref VARCHAR(2048);
@@ -0,0 +1,3 @@
+-- Sustentam as listagens por cursor (data_avaliacao desc, id desc) sem ordenar em memória
+CREATE INDEX idx_avaliacoes_funcionario_data ON avaliacoes (funcionario_id, data_avaliacao DESC, id DESC);
+CREATE INDEX idx_avaliacoes_empresa_data ON avaliacoes (empresa_id, data_avaliacao DESC, id DESC);
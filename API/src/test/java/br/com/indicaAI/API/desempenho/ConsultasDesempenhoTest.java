@@ -0,0 +1,221 @@
+package br.com.indicaAI.API.desempenho;
+
+import br.com.indicaAI.API.domain.autenticacao.CredencialRepository;
+import br.com.indicaAI.API.domain.avaliacao.AvaliacaoRepository;
+import br.com.indicaAI.API.domain.empresa.EmpresaRepository;
+import br.com.indicaAI.API.domain.funcionario.FuncionarioRepository;
+import br.com.indicaAI.API.domain.funcionario.foto.MigracaoFotosFuncionarios;
+import br.com.indicaAI.API.domain.reputacao.RankingCidades;
+import br.com.indicaAI.API.domain.shared.IdentificadoresCadastrados;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Planos e latência das consultas dos repositórios com milhões de linhas sintéticas. Cada caso
+ * chama o repositório de verdade, mede o p95 contra o orçamento e roda EXPLAIN ANALYZE no SQL que
+ * foi gerado: Seq Scan numa tabela grande, ou índice que descarta linhas demais no filtro, falha
+ * o build. Precisa de um Postgres local dedicado (a massa fica no banco e é reaproveitada).
+ *
+ * <pre>DB_URL=jdbc:postgresql://localhost:5432/indicaai_desempenho ... mvn -Pdesempenho test
+ * -Ddesempenho.funcionarios=1000000 -Ddesempenho.avaliacoes=3000000 -Ddesempenho.fator-orcamento=1.0</pre>
+ */
+@Tag("desempenho")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = "spring.rabbitmq.listener.simple.auto-startup=false")
+class ConsultasDesempenhoTest {
+
+    private static final int AQUECIMENTO = 3;
+    private static final int EXECUCOES = 20;
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsultasDesempenhoTest.class);
+
+    @Autowired private DataSource dataSource;
+    @Autowired private FuncionarioRepository funcionarioRepository;
+    @Autowired private EmpresaRepository empresaRepository;
+    @Autowired private AvaliacaoRepository avaliacaoRepository;
+    @Autowired private CredencialRepository credencialRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    // Cargas de inicialização varrem as tabelas em segundo plano e atrapalhariam a medição
+    @MockitoBean private RankingCidades rankingCidades;
+    @MockitoBean private IdentificadoresCadastrados identificadoresCadastrados;
+    @MockitoBean private MigracaoFotosFuncionarios migracaoFotosFuncionarios;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final double fatorOrcamento = Double.parseDouble(System.getProperty("desempenho.fator-orcamento", "1.0"));
+    private final long maximoDescartadas = Long.getLong("desempenho.maximo-descartadas", 100);
+    // Seq Scan em tabela menor que isso é escolha certa do planner, não regressão
+    private final long linhasTabelaPequena = Long.getLong("desempenho.linhas-tabela-pequena", 5000);
+    private final MassaSintetica massa = new MassaSintetica(Long.getLong("desempenho.funcionarios", 1_000_000),
+            Long.getLong("desempenho.avaliacoes", 3_000_000));
+
+    @TestConfiguration
+    static class Gravacao {
+
+        @Bean
+        static BeanPostProcessor gravarConsultas() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String nome) {
+                    return bean instanceof DataSource alvo && nome.equals("dataSource") ? new ConsultasGravadas(alvo) : bean;
+                }
+            };
+        }
+    }
+
+    private record Caso(String nome, long orcamentoMs, Runnable chamada) {}
+
+    private Map<String, Long> linhasPorTabela;
+
+    @BeforeAll
+    void carregarMassa() throws Exception {
+        massa.garantir(dataSource);
+        linhasPorTabela = new HashMap<>();
+        try (var conexao = dataSource.getConnection(); var consulta = conexao.createStatement();
+             var rs = consulta.executeQuery("SELECT relname, reltuples::bigint FROM pg_class WHERE relkind = 'r'")) {
+            while (rs.next()) {
+                linhasPorTabela.put(rs.getString(1), rs.getLong(2));
+            }
+        }
+    }
+
+    @TestFactory
+    Stream<DynamicTest> consultas() {
+        var funcionario = massa.funcionarios / 2;
+        var empresa = massa.empresas / 2;
+        var idFuncionario = massa.idFuncionario(funcionario);
+        var idEmpresa = massa.idEmpresa(empresa);
+        var cpf = massa.cpf(funcionario);
+        // Página funda: três quartos das avaliações da empresa são mais novas que o cursor
+        var cursor = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+        var casos = List.of(
+                new Caso("funcionarios.findByEmail", 25,
+                        () -> funcionarioRepository.findByEmail(massa.emailFuncionario(funcionario))),
+                new Caso("funcionarios.existsByEmail", 25,
+                        () -> funcionarioRepository.existsByEmail(massa.emailFuncionario(funcionario))),
+                new Caso("funcionarios.existsByCpf", 25, () -> funcionarioRepository.existsByCpf(cpf)),
+                new Caso("funcionarios.buscarVersaoDetalhe", 25, () -> funcionarioRepository.buscarVersaoDetalhe(idFuncionario)),
+                // Trigram: o custo cresce com a base (~1s com 1M no ambiente de referência); o plano é o que protege
+                new Caso("funcionarios.buscarAtivosPorNome", 1500,
+                        () -> funcionarioRepository.buscarAtivosPorNome(massa.nome(funcionario),
+                                massa.nome(funcionario), 20, 0)),
+                new Caso("funcionarios.buscarAtivoPorCpf", 25, () -> funcionarioRepository.buscarAtivoPorCpf(cpf)),
+                new Caso("funcionarios.buscarAtivosPorPrefixoCpf", 25,
+                        () -> funcionarioRepository.buscarAtivosPorPrefixoCpf(cpf.substring(0, 6), 20, 0)),
+                new Caso("empresas.findByEmail", 25, () -> empresaRepository.findByEmail(massa.emailEmpresa(empresa))),
+                new Caso("empresas.existsByCnpj", 25, () -> empresaRepository.existsByCnpj(String.format("%014d", empresa))),
+                new Caso("credenciais.buscarPorEmail", 25,
+                        () -> credencialRepository.buscarPorEmail(massa.emailEmpresa(empresa))),
+                new Caso("avaliacoes.findAllByFuncionarioId", 25, () -> avaliacaoRepository.findAllByFuncionarioId(idFuncionario)),
+                new Caso("avaliacoes.findAllByEmpresaId", 150, () -> avaliacaoRepository.findAllByEmpresaId(idEmpresa)),
+                new Caso("avaliacoes.existsByEmpresaIdAndFuncionarioId", 25,
+                        () -> avaliacaoRepository.existsByEmpresaIdAndFuncionarioId(idEmpresa, idFuncionario)),
+                new Caso("avaliacoes.listarDetalhadasPorFuncionario", 25,
+                        () -> avaliacaoRepository.listarDetalhadasPorFuncionario(idFuncionario, Limit.of(21))),
+                new Caso("avaliacoes.listarDetalhadasPorEmpresa", 25,
+                        () -> avaliacaoRepository.listarDetalhadasPorEmpresa(idEmpresa, Limit.of(21))),
+                new Caso("avaliacoes.listarDetalhadasPorEmpresa (sem limite)", 150,
+                        () -> avaliacaoRepository.listarDetalhadasPorEmpresa(idEmpresa, Limit.unlimited())),
+                new Caso("avaliacoes.listarDetalhadasPorEmpresaApos", 25,
+                        () -> avaliacaoRepository.listarDetalhadasPorEmpresaApos(idEmpresa, cursor,
+                                new UUID(0, 0), Limit.of(21))),
+                new Caso("avaliacoes.buscarVersaoListaPorFuncionario", 25,
+                        () -> avaliacaoRepository.buscarVersaoListaPorFuncionario(idFuncionario)),
+                new Caso("avaliacoes.buscarVersaoListaPorEmpresa", 25,
+                        () -> avaliacaoRepository.buscarVersaoListaPorEmpresa(idEmpresa)),
+                new Caso("avaliacoes.streamDetalhadasPorEmpresa", 150,
+                        () -> transactionTemplate.executeWithoutResult(status -> {
+                            try (var avaliacoes = avaliacaoRepository.streamDetalhadasPorEmpresa(idEmpresa)) {
+                                avaliacoes.forEach(avaliacao -> { });
+                            }
+                        })));
+
+        return casos.stream().map(caso -> DynamicTest.dynamicTest(caso.nome(), () -> verificar(caso)));
+    }
+
+    private void verificar(Caso caso) throws Exception {
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            caso.chamada().run();
+        }
+        var tempos = new long[EXECUCOES];
+        for (int i = 0; i < EXECUCOES; i++) {
+            var inicio = System.nanoTime();
+            caso.chamada().run();
+            tempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tempos);
+        var p95Ms = tempos[(int) Math.ceil(EXECUCOES * 0.95) - 1] / 1_000_000.0;
+        var orcamentoMs = caso.orcamentoMs() * fatorOrcamento;
+        logger.info("{}: p95 {}ms (orçamento {}ms)", caso.nome(), String.format("%.1f", p95Ms),
+                String.format("%.1f", orcamentoMs));
+
+        var consultas = ConsultasGravadas.gravar(caso.chamada());
+        assertTrue(!consultas.isEmpty(), caso.nome() + ": nenhuma consulta chegou ao banco");
+        for (var consulta : consultas) {
+            var plano = explicar(consulta);
+            var problemas = new ArrayList<String>();
+            inspecionar(plano.path("Plan"), problemas);
+            if (!problemas.isEmpty()) {
+                fail(caso.nome() + ": " + String.join("; ", problemas) + "\n" + consulta.sql() + "\n"
+                        + objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(plano));
+            }
+        }
+        assertTrue(p95Ms <= orcamentoMs, String.format("%s: p95 de %.1fms acima do orçamento de %.1fms",
+                caso.nome(), p95Ms, orcamentoMs));
+    }
+
+    private JsonNode explicar(ConsultasGravadas.Consulta consulta) throws Exception {
+        try (var conexao = dataSource.getConnection();
+             var explain = conexao.prepareStatement("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + consulta.sql())) {
+            consulta.aplicar(explain);
+            try (var rs = explain.executeQuery()) {
+                rs.next();
+                return objectMapper.readTree(rs.getString(1)).get(0);
+            }
+        }
+    }
+
+    private void inspecionar(JsonNode no, List<String> problemas) {
+        var tipo = no.path("Node Type").asText();
+        var tabela = no.path("Relation Name").asText();
+        if (tipo.equals("Seq Scan") && linhasPorTabela.getOrDefault(tabela, 0L) > linhasTabelaPequena) {
+            problemas.add("Seq Scan em " + tabela);
+        }
+        // Índice pela coluna errada: acha as linhas pelo prefixo e joga a maioria fora no filtro
+        var descartadas = no.path("Rows Removed by Filter").asLong() * Math.max(1, no.path("Actual Loops").asLong());
+        if (descartadas > maximoDescartadas) {
+            problemas.add(tipo + (tabela.isEmpty() ? "" : " em " + tabela) + " descartou " + descartadas
+                    + " linhas no filtro");
+        }
+        no.path("Plans").forEach(filho -> inspecionar(filho, problemas));
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.indicaAI.API.desempenho;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSource que grava o SQL e os parâmetros de cada PreparedStatement preparado dentro de
+ * {@link #gravar}, só na thread que pediu. O EXPLAIN roda depois exatamente a consulta que o
+ * Hibernate ou o JdbcTemplate gerou, com os mesmos valores (plano custom, como em produção).
+ */
+class ConsultasGravadas extends DelegatingDataSource {
+
+    private static final ThreadLocal<List<Consulta>> GRAVANDO = new ThreadLocal<>();
+
+    record Parametro(Method metodo, Object[] argumentos) {}
+
+    record Consulta(String sql, List<Parametro> parametros) {
+
+        void aplicar(PreparedStatement statement) throws SQLException {
+            for (var parametro : parametros) {
+                invocar(statement, parametro.metodo(), parametro.argumentos());
+            }
+        }
+    }
+
+    ConsultasGravadas(DataSource alvo) {
+        super(alvo);
+    }
+
+    static List<Consulta> gravar(Runnable chamada) {
+        var consultas = new ArrayList<Consulta>();
+        GRAVANDO.set(consultas);
+        try {
+            chamada.run();
+        } finally {
+            GRAVANDO.remove();
+        }
+        return consultas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envolver(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return envolver(super.getConnection(username, password));
+    }
+
+    private static Connection envolver(Connection conexao) {
+        return (Connection) Proxy.newProxyInstance(ConsultasGravadas.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, metodo, argumentos) -> {
+                    var resultado = invocar(conexao, metodo, argumentos);
+                    var gravando = GRAVANDO.get();
+                    if (gravando != null && metodo.getName().equals("prepareStatement")
+                            && resultado instanceof PreparedStatement statement) {
+                        var consulta = new Consulta((String) argumentos[0], new ArrayList<>());
+                        gravando.add(consulta);
+                        return envolver(statement, consulta);
+                    }
+                    return resultado;
+                });
+    }
+
+    private static PreparedStatement envolver(PreparedStatement statement, Consulta consulta) {
+        return (PreparedStatement) Proxy.newProxyInstance(ConsultasGravadas.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, metodo, argumentos) -> {
+                    // setString(int, ...), setObject(int, ...), setTimestamp(int, ...) etc.
+                    if (metodo.getName().startsWith("set") && argumentos != null && argumentos.length >= 2
+                            && metodo.getParameterTypes()[0] == int.class) {
+                        consulta.parametros().add(new Parametro(metodo, argumentos.clone()));
+                    }
+                    return invocar(statement, metodo, argumentos);
+                });
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] argumentos) throws SQLException {
+        try {
+            return metodo.invoke(alvo, argumentos);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException sql) {
+                throw sql;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
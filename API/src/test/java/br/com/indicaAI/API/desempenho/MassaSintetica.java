@@ -0,0 +1,219 @@
+package br.com.indicaAI.API.desempenho;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.LongFunction;
+
+/**
+ * Massa sintética determinística (empresas, funcionários, avaliações e reputação) carregada com
+ * COPY numa transação só. Ids, CPFs, e-mails e nomes saem do índice da linha, então os testes
+ * conseguem apontar registros sem consultar o banco. A carga é reaproveitada entre execuções:
+ * se o último funcionário do volume pedido já existe, nada é carregado.
+ */
+final class MassaSintetica {
+
+    private static final String DOMINIO = "@desempenho.indicaai.test";
+    private static final long TABELA_EMPRESA = 1L << 40;
+    private static final long TABELA_FUNCIONARIO = 2L << 40;
+    private static final long TABELA_AVALIACAO = 3L << 40;
+    private static final LocalDateTime REFERENCIA = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final long SEGUNDOS_HISTORICO = 2L * 365 * 24 * 3600;
+
+    private static final String[] PRIMEIROS_NOMES = {"Ana", "Bruno", "Carla", "Diego", "Elaine", "Fábio",
+            "Gabriela", "Heitor", "Isabela", "João", "Karina", "Lucas", "Marina", "Nicolas", "Olívia", "Paulo",
+            "Quésia", "Rafael", "Sofia", "Thiago", "Úrsula", "Vinícius", "Wesley", "Yasmin", "Zeca"};
+    private static final String[] SILABAS = {"ba", "be", "bo", "ca", "ce", "co", "da", "de", "do", "fa", "fe",
+            "ga", "go", "la", "le", "li", "lo", "ma", "me", "mi", "na", "ne", "no", "pa", "pe", "ra", "re", "ri",
+            "sa", "se", "ta", "te", "to", "va", "ve", "za"};
+    private static final String[] CIDADES = {"Recife", "Olinda", "Salvador", "Fortaleza", "São Paulo",
+            "Rio de Janeiro", "Belo Horizonte", "Curitiba", "Porto Alegre", "Manaus", "Belém", "Natal",
+            "João Pessoa", "Maceió", "Aracaju", "Teresina", "São Luís", "Goiânia", "Brasília", "Florianópolis"};
+
+    private static final Logger logger = LoggerFactory.getLogger(MassaSintetica.class);
+
+    final long funcionarios;
+    final long empresas;
+    final long avaliacoes;
+
+    MassaSintetica(long funcionarios, long avaliacoes) {
+        this.funcionarios = funcionarios;
+        this.empresas = Math.max(1, funcionarios / 100);
+        this.avaliacoes = avaliacoes;
+    }
+
+    void garantir(DataSource dataSource) throws SQLException, IOException {
+        try (var conexao = dataSource.getConnection()) {
+            if (existeFuncionario(conexao, funcionarios - 1)) {
+                logger.info("Massa sintética já carregada ({} funcionários)", funcionarios);
+                return;
+            }
+            if (existeFuncionario(conexao, 0)) {
+                throw new IllegalStateException("O banco tem massa sintética de outro volume; use um banco novo");
+            }
+            carregar(conexao);
+        }
+    }
+
+    UUID idFuncionario(long i) {
+        return id(TABELA_FUNCIONARIO, i);
+    }
+
+    UUID idEmpresa(long i) {
+        return id(TABELA_EMPRESA, i);
+    }
+
+    String emailFuncionario(long i) {
+        return "funcionario" + i + DOMINIO;
+    }
+
+    String emailEmpresa(long i) {
+        return "empresa" + i + DOMINIO;
+    }
+
+    // i * primo: CPFs únicos e espalhados, para o prefixo da busca não casar com metade da tabela
+    String cpf(long i) {
+        return String.format("%011d", i * 99_991);
+    }
+
+    String nome(long i) {
+        var h = misturar(i);
+        return PRIMEIROS_NOMES[(int) Long.remainderUnsigned(h, PRIMEIROS_NOMES.length)]
+                + " " + sobrenome(h >>> 16) + " " + sobrenome(h >>> 40);
+    }
+
+    private void carregar(Connection conexao) throws SQLException, IOException {
+        var inicio = System.nanoTime();
+        var copy = conexao.unwrap(PGConnection.class).getCopyAPI();
+        conexao.setAutoCommit(false);
+        try {
+            copy.copyIn("COPY empresas (id, razao_social, nome_fantasia, cnpj, email, senha, status) FROM STDIN (FORMAT csv)",
+                    new LinhasCsv(empresas, i -> idEmpresa(i) + ",Empresa " + i + " LTDA,Empresa " + i + ","
+                            + String.format("%014d", i) + "," + emailEmpresa(i) + ",x,ATIVO\n"));
+            copy.copyIn("COPY funcionarios (id, nome_completo, cpf, email, senha, status, cidade) FROM STDIN (FORMAT csv)",
+                    new LinhasCsv(funcionarios, i -> idFuncionario(i) + "," + nome(i) + "," + cpf(i) + ","
+                            + emailFuncionario(i) + ",x," + status(i) + ","
+                            + CIDADES[(int) Long.remainderUnsigned(misturar(~i), CIDADES.length)] + "\n"));
+
+            var aleatorio = new SplittableRandom(42);
+            copy.copyIn("COPY avaliacoes (id, funcionario_id, empresa_id, nota, descricao, data_avaliacao, status) FROM STDIN (FORMAT csv)",
+                    new LinhasCsv(avaliacoes, i -> id(TABELA_AVALIACAO, i) + ","
+                            + idFuncionario(aleatorio.nextLong(funcionarios)) + ","
+                            + idEmpresa(aleatorio.nextLong(empresas)) + ","
+                            + (1 + aleatorio.nextInt(5)) + ",Avaliação sintética " + i + ","
+                            + REFERENCIA.minusSeconds(aleatorio.nextLong(SEGUNDOS_HISTORICO)) + ",PUBLICADA\n"));
+
+            try (var statement = conexao.createStatement()) {
+                statement.execute("""
+                        INSERT INTO funcionario_reputacao (funcionario_id, total_avaliacoes, soma_notas,
+                                                           notas_1, notas_2, notas_3, notas_4, notas_5, ultima_avaliacao)
+                        SELECT funcionario_id, COUNT(*), SUM(nota),
+                               COUNT(*) FILTER (WHERE nota = 1), COUNT(*) FILTER (WHERE nota = 2),
+                               COUNT(*) FILTER (WHERE nota = 3), COUNT(*) FILTER (WHERE nota = 4),
+                               COUNT(*) FILTER (WHERE nota = 5), MAX(data_avaliacao)
+                          FROM avaliacoes
+                         WHERE status = 'PUBLICADA' AND nota IS NOT NULL
+                         GROUP BY funcionario_id
+                        ON CONFLICT (funcionario_id) DO NOTHING
+                        """);
+            }
+            conexao.commit();
+        } catch (SQLException | IOException | RuntimeException e) {
+            conexao.rollback();
+            throw e;
+        } finally {
+            conexao.setAutoCommit(true);
+        }
+
+        try (var statement = conexao.createStatement()) {
+            statement.execute("ANALYZE empresas, funcionarios, avaliacoes, funcionario_reputacao");
+        }
+        logger.info("Massa sintética carregada: {} empresas, {} funcionários, {} avaliações em {}s", empresas,
+                funcionarios, avaliacoes, (System.nanoTime() - inicio) / 1_000_000_000);
+    }
+
+    private boolean existeFuncionario(Connection conexao, long i) throws SQLException {
+        try (var consulta = conexao.prepareStatement("SELECT 1 FROM funcionarios WHERE email = ?")) {
+            consulta.setString(1, emailFuncionario(i));
+            try (var rs = consulta.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // Maioria ativa, como em produção: a busca e o ranking só olham ATIVO
+    private static String status(long i) {
+        var faixa = Long.remainderUnsigned(misturar(i + 7), 20);
+        return faixa == 0 ? "INATIVO" : faixa == 1 ? "PENDENTE_VALIDACAO" : "ATIVO";
+    }
+
+    private static String sobrenome(long h) {
+        var silabas = new StringBuilder();
+        for (int s = 0; s < 3; s++) {
+            silabas.append(SILABAS[(int) Long.remainderUnsigned(h >>> (s * 6), SILABAS.length)]);
+        }
+        silabas.setCharAt(0, Character.toUpperCase(silabas.charAt(0)));
+        return silabas.toString();
+    }
+
+    // Espalha os ids pelo índice como UUIDs aleatórios; os bits baixos garantem que não colidem
+    private static UUID id(long tabela, long i) {
+        return new UUID(misturar(tabela | i), tabela | i);
+    }
+
+    private static long misturar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // Gera as linhas do COPY sob demanda, sem montar o arquivo em memória
+    private static final class LinhasCsv extends Reader {
+
+        private final long total;
+        private final LongFunction<String> linha;
+        private long proxima;
+        private String atual = "";
+        private int posicao;
+
+        private LinhasCsv(long total, LongFunction<String> linha) {
+            this.total = total;
+            this.linha = linha;
+        }
+
+        @Override
+        public int read(char[] destino, int deslocamento, int tamanho) {
+            int lidos = 0;
+            while (lidos < tamanho) {
+                if (posicao == atual.length()) {
+                    if (proxima == total) {
+                        break;
+                    }
+                    atual = linha.apply(proxima++);
+                    posicao = 0;
+                }
+                int n = Math.min(tamanho - lidos, atual.length() - posicao);
+                atual.getChars(posicao, posicao + n, destino, deslocamento + lidos);
+                posicao += n;
+                lidos += n;
+            }
+            return lidos == 0 && tamanho > 0 ? -1 : lidos;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.indicaAI.API.domain.funcionario;
+
+import br.com.indicaAI.API.domain.autenticacao.AutenticacaoService;
+import br.com.indicaAI.API.domain.funcionario.mensageria.ResultadoValidacaoMQ;
+import br.com.indicaAI.API.domain.shared.CachePerfis;
+import br.com.indicaAI.API.domain.shared.EmailService;
+import br.com.indicaAI.API.infrastructure.security.RevogacaoTokens;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara a vazão do listener de validação nos modos individual e em lote contra o banco
+ * configurado. O broker fica de fora: as mensagens são entregues direto aos listeners, cada
+ * chamada na sua transação, como o container faria. Falha se algum modo deixar funcionário
+ * pendente ou se o lote não for pelo menos benchmark.ganho-minimo vezes mais rápido.
+ *
+ * <pre>DB_URL=... mvn test -Dtest=ValidacaoListenerBenchmarkTest -Dbenchmark=true -Dbenchmark.mensagens=3000 -Dbenchmark.ganho-minimo=3</pre>
+ */
+@SpringBootTest(properties = "spring.rabbitmq.listener.simple.auto-startup=false")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ValidacaoListenerBenchmarkTest {
+
+    private static final int TAMANHO_LOTE = 200;
+
+    private static final Logger logger = LoggerFactory.getLogger(ValidacaoListenerBenchmarkTest.class);
+
+    @Autowired private FuncionarioRepository funcionarioRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EmailService emailService;
+    @Autowired private RevogacaoTokens revogacaoTokens;
+    @Autowired private AutenticacaoService autenticacaoService;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private MetricasValidacao metricasValidacao;
+    @Autowired private CachePerfis cachePerfis;
+    @Autowired private EventosValidacao eventosValidacao;
+
+    @Test
+    void compararModos() {
+        int mensagens = Integer.getInteger("benchmark.mensagens", 5000);
+        double ganhoMinimo = Double.parseDouble(System.getProperty("benchmark.ganho-minimo", "3"));
+        var individual = new FuncionarioValidacaoListener(funcionarioRepository, emailService, revogacaoTokens, autenticacaoService, metricasValidacao, cachePerfis, eventosValidacao);
+        var lote = new FuncionarioValidacaoListenerLote(funcionarioRepository, jdbcTemplate, emailService, revogacaoTokens, autenticacaoService, metricasValidacao, cachePerfis, eventosValidacao);
+
+        var resultadosIndividual = semear(mensagens);
+        long inicio = System.nanoTime();
+        for (ResultadoValidacaoMQ resultado : resultadosIndividual) {
+            transactionTemplate.executeWithoutResult(status -> individual.processarRespostaDaIA(resultado));
+        }
+        double segundosIndividual = (System.nanoTime() - inicio) / 1e9;
+
+        var resultadosLote = semear(mensagens);
+        inicio = System.nanoTime();
+        for (int i = 0; i < resultadosLote.size(); i += TAMANHO_LOTE) {
+            var fatia = resultadosLote.subList(i, Math.min(i + TAMANHO_LOTE, resultadosLote.size()));
+            transactionTemplate.executeWithoutResult(status -> lote.processarRespostasDaIA(fatia));
+        }
+        double segundosLote = (System.nanoTime() - inicio) / 1e9;
+
+        logger.info("individual: {} mensagens em {}s ({} msg/s)", mensagens, String.format("%.2f", segundosIndividual),
+                Math.round(mensagens / segundosIndividual));
+        logger.info("lote({}): {} mensagens em {}s ({} msg/s)", TAMANHO_LOTE, mensagens, String.format("%.2f", segundosLote),
+                Math.round(mensagens / segundosLote));
+
+        try {
+            assertEquals(0, pendentes(resultadosIndividual), "modo individual deixou funcionários pendentes");
+            assertEquals(0, pendentes(resultadosLote), "modo lote deixou funcionários pendentes");
+            var ganho = segundosIndividual / segundosLote;
+            assertTrue(ganho >= ganhoMinimo, String.format("lote só %.1fx mais rápido (mínimo %.1fx)", ganho, ganhoMinimo));
+        } finally {
+            limpar(resultadosIndividual);
+            limpar(resultadosLote);
+        }
+    }
+
+    private int pendentes(List<ResultadoValidacaoMQ> resultados) {
+        var ids = resultados.stream().map(ResultadoValidacaoMQ::funcionarioId).toArray(UUID[]::new);
+        return jdbcTemplate.query("SELECT COUNT(*) FROM funcionarios WHERE status = 'PENDENTE_VALIDACAO' AND id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids)),
+                rs -> { rs.next(); return rs.getInt(1); });
+    }
+
+    private List<ResultadoValidacaoMQ> semear(int quantidade) {
+        List<Object[]> linhas = new ArrayList<>(quantidade);
+        List<ResultadoValidacaoMQ> resultados = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            var id = UUID.randomUUID();
+            var sufixo = id.toString().replace("-", "");
+            linhas.add(new Object[]{id, "Benchmark " + i, sufixo.substring(0, 14), "bench-" + sufixo + "@indicaai.test", "x"});
+            resultados.add(new ResultadoValidacaoMQ(id, i % 5 != 0, i % 5 != 0 ? null : "Documento ilegível"));
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO funcionarios (id, nome_completo, cpf, email, senha, status)
+                VALUES (?, ?, ?, ?, ?, 'PENDENTE_VALIDACAO')
+                """, linhas);
+        return resultados;
+    }
+
+    private void limpar(List<ResultadoValidacaoMQ> resultados) {
+        jdbcTemplate.update("DELETE FROM email_outbox WHERE destinatario LIKE 'bench-%@indicaai.test'");
+        jdbcTemplate.batchUpdate("DELETE FROM funcionarios WHERE id = ?",
+                resultados.stream().map(resultado -> new Object[]{resultado.funcionarioId()}).toList());
+    }
+}
@@ -0,0 +1,211 @@
+package br.com.indicaAI.API.domain.reputacao;
+
+import br.com.indicaAI.API.domain.avaliacao.AvaliacaoService;
+import br.com.indicaAI.API.domain.avaliacao.dtos.CriarAvaliacaoDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Ranking em memória contra a mesma fórmula calculada direto no banco configurado, numa cidade
+ * criada só para o teste. O caso concorrente avalia funcionários em várias threads enquanto outra
+ * recarrega os mesmos ids sem parar: nenhuma avaliação pode se perder nem contar duas vezes, e
+ * nenhuma pode ficar presa esperando conexão.
+ *
+ * <pre>DB_URL=... mvn test -Dtest=RankingCidadesTest</pre>
+ */
+// Pool menor que as threads avaliando: recarga que segurasse a trava esperando conexão estouraria o timeout
+@SpringBootTest(properties = {"spring.rabbitmq.listener.simple.auto-startup=false",
+        "spring.datasource.hikari.maximum-pool-size=3", "spring.datasource.hikari.connection-timeout=3000"})
+@EnabledIfEnvironmentVariable(named = "DB_URL", matches = ".+")
+class RankingCidadesTest {
+
+    private static final int FUNCIONARIOS = 60;
+    private static final int EMPRESAS_HISTORICO = 4;
+    private static final int EMPRESAS_CONCORRENTES = 4;
+    private static final int THREADS_AVALIANDO = 4;
+    private static final long SEGUNDOS_HISTORICO = 2L * 365 * 24 * 3600;
+
+    private static final String SQL_ESPERADO = """
+            WITH ranqueados AS (
+                SELECT f.id, f.cidade, COUNT(*) AS total,
+                       SUM(a.nota * exp(-?::float8 * EXTRACT(EPOCH FROM (?::timestamp - a.data_avaliacao))::float8)) AS soma_ponderada,
+                       SUM(exp(-?::float8 * EXTRACT(EPOCH FROM (?::timestamp - a.data_avaliacao))::float8)) AS peso
+                  FROM funcionarios f
+                  JOIN avaliacoes a ON a.funcionario_id = f.id AND a.status = 'PUBLICADA' AND a.nota IS NOT NULL
+                 WHERE f.status = 'ATIVO' AND btrim(f.cidade) <> ''
+                 GROUP BY f.id
+            ), prior AS (
+                SELECT SUM(soma_ponderada) / SUM(peso) AS media FROM ranqueados
+            )
+            SELECT r.id, r.total, (?::float8 * p.media + r.soma_ponderada) / (?::float8 + r.peso) AS pontuacao
+              FROM ranqueados r CROSS JOIN prior p
+             WHERE r.cidade = ?
+             ORDER BY pontuacao DESC
+            """;
+
+    private record Esperado(UUID id, long total, double pontuacao) {}
+
+    @Autowired private RankingCidades rankingCidades;
+    @Autowired private AvaliacaoService avaliacaoService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Value("${api.ranking.meia-vida}") private Duration meiaVida;
+    @Value("${api.ranking.peso-prior}") private double pesoPrior;
+
+    private final String cidade = "Ranking " + UUID.randomUUID();
+    private final List<UUID> funcionarios = new ArrayList<>();
+    private final List<UUID> empresas = new ArrayList<>();
+
+    @BeforeEach
+    void semear() {
+        List<Object[]> linhasFuncionarios = new ArrayList<>();
+        for (int i = 0; i < FUNCIONARIOS; i++) {
+            var id = UUID.randomUUID();
+            var sufixo = id.toString().replace("-", "");
+            funcionarios.add(id);
+            linhasFuncionarios.add(new Object[]{id, "Ranking " + i, sufixo.substring(0, 14),
+                    "ranking-" + sufixo + "@indicaai.test", cidade});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO funcionarios (id, nome_completo, cpf, email, senha, status, cidade)
+                VALUES (?, ?, ?, ?, 'x', 'ATIVO', ?)
+                """, linhasFuncionarios);
+
+        List<Object[]> linhasEmpresas = new ArrayList<>();
+        for (int i = 0; i < EMPRESAS_HISTORICO + EMPRESAS_CONCORRENTES; i++) {
+            var id = UUID.randomUUID();
+            var sufixo = id.toString().replace("-", "");
+            empresas.add(id);
+            linhasEmpresas.add(new Object[]{id, "Ranking " + i, "Ranking " + i, sufixo.substring(0, 20),
+                    "ranking-" + sufixo + "@indicaai.test"});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO empresas (id, razao_social, nome_fantasia, cnpj, email, senha, status)
+                VALUES (?, ?, ?, ?, ?, 'x', 'ATIVO')
+                """, linhasEmpresas);
+
+        // Histórico espalhado em dois anos, para o decaimento pesar na ordem
+        var aleatorio = new SplittableRandom(42);
+        var agora = LocalDateTime.now();
+        List<Object[]> avaliacoes = new ArrayList<>();
+        for (var funcionario : funcionarios) {
+            for (int e = 0; e < EMPRESAS_HISTORICO; e++) {
+                if (aleatorio.nextInt(10) < 7) {
+                    avaliacoes.add(new Object[]{UUID.randomUUID(), funcionario, empresas.get(e), 1 + aleatorio.nextInt(5),
+                            Timestamp.valueOf(agora.minusSeconds(aleatorio.nextLong(SEGUNDOS_HISTORICO)))});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO avaliacoes (id, funcionario_id, empresa_id, nota, descricao, data_avaliacao, status)
+                VALUES (?, ?, ?, ?, 'Histórico', ?, 'PUBLICADA')
+                """, avaliacoes);
+    }
+
+    @AfterEach
+    void limpar() {
+        var ids = funcionarios.toArray(UUID[]::new);
+        for (var tabela : List.of("avaliacoes", "funcionario_reputacao")) {
+            jdbcTemplate.update("DELETE FROM " + tabela + " WHERE funcionario_id = ANY(?)",
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids)));
+        }
+        jdbcTemplate.update("DELETE FROM funcionarios WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids)));
+        jdbcTemplate.update("DELETE FROM empresas WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", empresas.toArray(UUID[]::new))));
+        rankingCidades.recarregar(funcionarios);
+    }
+
+    @Test
+    void rankingIgualAoCalculadoNoBanco() {
+        rankingCidades.construir();
+        conferir();
+    }
+
+    @Test
+    void avaliacoesConcorrentesComRecargas() throws Exception {
+        rankingCidades.construir();
+
+        var executor = Executors.newFixedThreadPool(THREADS_AVALIANDO + 1);
+        var avaliando = new AtomicBoolean(true);
+        try {
+            // As empresas concorrentes ainda não avaliaram ninguém: cada par é uma avaliação nova
+            var pares = EMPRESAS_CONCORRENTES * FUNCIONARIOS;
+            List<Future<?>> avaliacoes = new ArrayList<>();
+            for (int t = 0; t < THREADS_AVALIANDO; t++) {
+                var primeiro = t;
+                avaliacoes.add(executor.submit(() -> {
+                    for (int i = primeiro; i < pares; i += THREADS_AVALIANDO) {
+                        var empresa = empresas.get(EMPRESAS_HISTORICO + i / FUNCIONARIOS);
+                        var funcionario = funcionarios.get(i % FUNCIONARIOS);
+                        avaliacaoService.avaliar(new CriarAvaliacaoDTO(funcionario, empresa, 1 + i % 5, "Concorrente"), empresa);
+                    }
+                    return null;
+                }));
+            }
+            var recargas = executor.submit(() -> {
+                while (avaliando.get()) {
+                    rankingCidades.recarregar(funcionarios);
+                }
+                return null;
+            });
+
+            for (var avaliacao : avaliacoes) {
+                avaliacao.get();
+            }
+            avaliando.set(false);
+            recargas.get();
+        } finally {
+            avaliando.set(false);
+            executor.shutdownNow();
+        }
+
+        // A média do prior só é recalculada no redecaimento
+        rankingCidades.redecair();
+        conferir();
+    }
+
+    private void conferir() {
+        var agora = Timestamp.valueOf(LocalDateTime.now());
+        var lambda = Math.log(2) / meiaVida.toSeconds();
+        var esperados = jdbcTemplate.query(SQL_ESPERADO,
+                (rs, i) -> new Esperado(rs.getObject("id", UUID.class), rs.getLong("total"), rs.getDouble("pontuacao")),
+                lambda, agora, lambda, agora, pesoPrior, pesoPrior, cidade);
+        var ranking = rankingCidades.listar(cidade, 0, FUNCIONARIOS);
+
+        assertEquals(esperados.size(), ranking.size(), "funcionários no ranking");
+        Map<UUID, Esperado> porId = new HashMap<>();
+        esperados.forEach(esperado -> porId.put(esperado.id(), esperado));
+        for (int i = 0; i < ranking.size(); i++) {
+            var posicao = ranking.get(i);
+            var esperado = porId.get(posicao.funcionarioId());
+            assertNotNull(esperado, "funcionário fora do cálculo no banco: " + posicao.funcionarioId());
+            assertEquals(esperado.total(), posicao.totalAvaliacoes(), "total de " + posicao.funcionarioId());
+            assertEquals(esperado.pontuacao(), posicao.pontuacao(), 0.002, "pontuação de " + posicao.funcionarioId());
+            // Empates no arredondamento podem trocar de lugar; a pontuação da posição não
+            assertEquals(esperados.get(i).pontuacao(), posicao.pontuacao(), 0.002, "pontuação da posição " + (i + 1));
+        }
+    }
+}
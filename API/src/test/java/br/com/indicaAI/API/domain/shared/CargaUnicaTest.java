@@ -0,0 +1,180 @@
+package br.com.indicaAI.API.domain.shared;
+
+import br.com.indicaAI.API.infrastructure.datasource.LeituraPrimario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A carga líder fica presa num latch até todos os outros chamadores estarem esperando por ela
+ * (contador indicaai.carga.coalescida), então a coalescência não depende de sorte no agendamento.
+ */
+class CargaUnicaTest {
+
+    private static final String TIPO = "teste";
+    private static final int SEGUIDORES = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CargaUnica cargaUnica = new CargaUnica(meterRegistry);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void seguidoresRecebemOValorDaCargaLider() throws Exception {
+        var id = UUID.randomUUID();
+        var valor = new Object();
+        var execucoes = new AtomicInteger();
+        var liberar = new CountDownLatch(1);
+
+        var lider = executor.submit(() -> cargaUnica.executar(TIPO, id, () -> {
+            execucoes.incrementAndGet();
+            aguardar(liberar);
+            return valor;
+        }));
+        aguardarExecucoes(execucoes, 1);
+        var seguidores = seguidores(() -> cargaUnica.executar(TIPO, id, () -> {
+            execucoes.incrementAndGet();
+            return new Object();
+        }));
+        aguardarCoalescidos(SEGUIDORES);
+        liberar.countDown();
+
+        assertSame(valor, lider.get(5, TimeUnit.SECONDS));
+        for (var seguidor : seguidores) {
+            assertSame(valor, seguidor.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void seguidoresRecebemAExcecaoDaCargaLider() throws Exception {
+        var id = UUID.randomUUID();
+        var erro = new IllegalStateException("Funcionário não encontrado");
+        var execucoes = new AtomicInteger();
+        var liberar = new CountDownLatch(1);
+
+        var lider = executor.submit(() -> cargaUnica.executar(TIPO, id, () -> {
+            execucoes.incrementAndGet();
+            aguardar(liberar);
+            throw erro;
+        }));
+        aguardarExecucoes(execucoes, 1);
+        var seguidores = seguidores(() -> cargaUnica.executar(TIPO, id, Object::new));
+        aguardarCoalescidos(SEGUIDORES);
+        liberar.countDown();
+
+        assertSame(erro, causa(lider));
+        for (var seguidor : seguidores) {
+            // A mesma exceção, não um CompletionException, para o TratadorErros mapear o status
+            assertSame(erro, causa(seguidor));
+        }
+        // Terminada a carga, a próxima chamada consulta de novo
+        assertEquals("nova", cargaUnica.executar(TIPO, id, () -> "nova"));
+    }
+
+    @Test
+    void esquecerNaoDeixaPegarCaronaNaCargaAnteriorAEscrita() throws Exception {
+        var id = UUID.randomUUID();
+        var execucoes = new AtomicInteger();
+        var liberar = new CountDownLatch(1);
+
+        var antiga = executor.submit(() -> cargaUnica.executar(TIPO, id, () -> {
+            execucoes.incrementAndGet();
+            aguardar(liberar);
+            return "antes da escrita";
+        }));
+        aguardarExecucoes(execucoes, 1);
+
+        cargaUnica.esquecer(TIPO, List.of(id));
+        // Sem latch: se coalescesse com a carga antiga, ficaria preso até o fim do teste
+        assertEquals("depois da escrita", cargaUnica.executar(TIPO, id, () -> "depois da escrita"));
+
+        liberar.countDown();
+        assertEquals("antes da escrita", antiga.get(5, TimeUnit.SECONDS));
+        assertEquals(0, coalescidos());
+    }
+
+    @Test
+    void leituraPresaAoPrimarioNaoPegaCaronaNaDaReplica() throws Exception {
+        var id = UUID.randomUUID();
+        var execucoes = new AtomicInteger();
+        var liberar = new CountDownLatch(1);
+
+        var replica = executor.submit(() -> cargaUnica.executar(TIPO, id, () -> {
+            execucoes.incrementAndGet();
+            aguardar(liberar);
+            return "replica";
+        }));
+        aguardarExecucoes(execucoes, 1);
+
+        assertEquals("primario", LeituraPrimario.executar(() -> cargaUnica.executar(TIPO, id, () -> "primario")));
+
+        liberar.countDown();
+        assertEquals("replica", replica.get(5, TimeUnit.SECONDS));
+        assertEquals(0, coalescidos());
+    }
+
+    private List<Future<Object>> seguidores(Supplier<Object> chamada) {
+        List<Future<Object>> seguidores = new ArrayList<>(SEGUIDORES);
+        for (int i = 0; i < SEGUIDORES; i++) {
+            seguidores.add(executor.submit(chamada::get));
+        }
+        return seguidores;
+    }
+
+    private double coalescidos() {
+        var contador = meterRegistry.find("indicaai.carga.coalescida").tag("tipo", TIPO).counter();
+        return contador == null ? 0 : contador.count();
+    }
+
+    private void aguardarCoalescidos(int esperados) throws InterruptedException {
+        var limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalescidos() < esperados) {
+            assertTrue(System.nanoTime() < limite, "só " + coalescidos() + " chamadas coalescidas");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void aguardarExecucoes(AtomicInteger execucoes, int esperadas) throws InterruptedException {
+        var limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (execucoes.get() < esperadas) {
+            assertTrue(System.nanoTime() < limite, "a carga líder não começou");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void aguardar(CountDownLatch liberar) {
+        try {
+            assertTrue(liberar.await(5, TimeUnit.SECONDS), "a carga nunca foi liberada");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Throwable causa(Future<?> futuro) throws Exception {
+        var erro = assertThrows(ExecutionException.class, () -> futuro.get(5, TimeUnit.SECONDS));
+        return erro.getCause();
+    }
+}
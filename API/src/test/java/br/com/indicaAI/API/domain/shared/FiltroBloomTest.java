@@ -0,0 +1,59 @@
+package br.com.indicaAI.API.domain.shared;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FiltroBloomTest {
+
+    private static final int CAPACIDADE = 200_000;
+    private static final double TAXA = 0.01;
+
+    @Test
+    void naoTemFalsoNegativo() {
+        var filtro = new FiltroBloom(CAPACIDADE, TAXA);
+        for (int i = 0; i < CAPACIDADE; i++) {
+            filtro.adicionar(cpf(i));
+        }
+        for (int i = 0; i < CAPACIDADE; i++) {
+            assertTrue(filtro.talvezContem(cpf(i)), "falso negativo para " + cpf(i));
+        }
+    }
+
+    @Test
+    void naoTemFalsoNegativoComInsercoesConcorrentes() {
+        var filtro = new FiltroBloom(CAPACIDADE, TAXA);
+        IntStream.range(0, CAPACIDADE).parallel().forEach(i -> filtro.adicionar(email(i)));
+        for (int i = 0; i < CAPACIDADE; i++) {
+            assertTrue(filtro.talvezContem(email(i)), "falso negativo para " + email(i));
+        }
+    }
+
+    @Test
+    void falsoPositivoDentroDaTaxaNaCapacidade() {
+        var filtro = new FiltroBloom(CAPACIDADE, TAXA);
+        for (int i = 0; i < CAPACIDADE; i++) {
+            filtro.adicionar(cpf(i));
+        }
+        // Sondas que nunca foram inseridas, com o mesmo formato dos valores inseridos
+        int falsosPositivos = 0;
+        for (int i = CAPACIDADE; i < 2 * CAPACIDADE; i++) {
+            if (filtro.talvezContem(cpf(i))) {
+                falsosPositivos++;
+            }
+        }
+        double taxa = (double) falsosPositivos / CAPACIDADE;
+        // 200 mil sondas: o desvio padrão fica em ~0,02 ponto percentual, 1,3% é folga de sobra
+        assertTrue(taxa <= TAXA * 1.3, "taxa de falso positivo " + taxa);
+    }
+
+    private static String cpf(int i) {
+        return String.format("%011d", i * 99_991L);
+    }
+
+    private static String email(int i) {
+        return "funcionario" + i + "@indicaai.test";
+    }
+}
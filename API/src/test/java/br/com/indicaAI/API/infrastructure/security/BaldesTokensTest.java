@@ -0,0 +1,115 @@
+package br.com.indicaAI.API.infrastructure.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Períodos longos (minutos, horas) para que nenhum token volte ao balde durante o teste:
+ * o resultado não depende da velocidade da máquina.
+ */
+class BaldesTokensTest {
+
+    private static final long MAXIMO_CHAVES = 1_000;
+
+    @Test
+    void rajadaPassaEDepoisLimita() {
+        var baldes = new BaldesTokens(new LimitesRequisicoes.Taxa(2, Duration.ofHours(1), 3), MAXIMO_CHAVES);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, baldes.consumir("ip"), "requisição " + (i + 1) + " da rajada");
+        }
+
+        // Um token a cada 30 minutos: a espera é o intervalo menos o tempo que já passou
+        var espera = baldes.consumir("ip");
+        var intervalo = Duration.ofMinutes(30).toNanos();
+        assertTrue(espera > intervalo - TimeUnit.SECONDS.toNanos(5) && espera <= intervalo, "espera " + espera);
+        // Requisição recusada não consome token
+        assertTrue(baldes.consumir("ip") <= espera);
+    }
+
+    @Test
+    void chavesTemBaldesSeparados() {
+        var baldes = new BaldesTokens(new LimitesRequisicoes.Taxa(1, Duration.ofHours(1), 0), MAXIMO_CHAVES);
+        assertEquals(0, baldes.consumir("a"));
+        assertTrue(baldes.consumir("a") > 0);
+        assertEquals(0, baldes.consumir("b"));
+    }
+
+    @Test
+    void retryAfterArredondaParaCimaEmSegundos() throws Exception {
+        var limites = new LimitesRequisicoes(true, MAXIMO_CHAVES, Map.of("login", new LimitesRequisicoes.Rota(
+                "POST", "/login", new LimitesRequisicoes.Taxa(1, Duration.ofSeconds(10), 1), null)));
+        var filtro = new LimiteRequisicoesFilter(limites, new SimpleMeterRegistry());
+
+        var primeira = new MockFilterChain();
+        filtro.doFilter(login(), new MockHttpServletResponse(), primeira);
+        assertNotNull(primeira.getRequest(), "a primeira requisição passa");
+
+        var resposta = new MockHttpServletResponse();
+        var segunda = new MockFilterChain();
+        filtro.doFilter(login(), resposta, segunda);
+        assertNull(segunda.getRequest(), "a segunda não chega ao controller");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), resposta.getStatus());
+        // Faltam um pouco menos de 10s: arredondar para baixo mandaria o cliente voltar cedo demais
+        assertEquals("10", resposta.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void admissoesConcorrentesNuncaPassamDaRajada() throws Exception {
+        var rajada = 50;
+        var baldes = new BaldesTokens(new LimitesRequisicoes.Taxa(rajada, Duration.ofHours(1), 0), MAXIMO_CHAVES);
+        var threads = 16;
+        var tentativasPorThread = 200;
+        var largada = new CountDownLatch(1);
+
+        List<Future<Integer>> admitidas = new ArrayList<>();
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                admitidas.add(executor.submit(() -> {
+                    largada.await();
+                    int passou = 0;
+                    for (int i = 0; i < tentativasPorThread; i++) {
+                        if (baldes.consumir("mesma-chave") == 0) {
+                            passou++;
+                        }
+                    }
+                    return passou;
+                }));
+            }
+            largada.countDown();
+
+            int total = 0;
+            for (var futuro : admitidas) {
+                total += futuro.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(rajada, total);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static MockHttpServletRequest login() {
+        var request = new MockHttpServletRequest("POST", "/login");
+        request.setRemoteAddr("203.0.113.7");
+        return request;
+    }
+}